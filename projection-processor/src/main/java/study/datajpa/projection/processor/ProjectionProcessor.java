@@ -0,0 +1,270 @@
+package study.datajpa.projection.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * [@GeneratedProjection 애너테이션 프로세서]
+ * 프로젝션 인터페이스마다 구현 클래스 "인터페이스 이름(중첩이면 _ 로 연결) + _Projection" 을 같은 패키지에 생성한다.
+ *
+ * <pre>
+ * public final class UsernameOnly_Projection implements UsernameOnly {
+ *     public static final ProjectionMapper&lt;UsernameOnly&gt; MAPPER = ...; // properties = {"username"}
+ *     private final String username;
+ *     UsernameOnly_Projection(Object[] row, int offset) { this.username = (String) row[offset]; }
+ *     public String getUsername() { return username; }
+ * }
+ * </pre>
+ */
+@SupportedAnnotationTypes(ProjectionProcessor.ANNOTATION)
+public class ProjectionProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "study.datajpa.projection.GeneratedProjection";
+    private static final String MAPPER = "study.datajpa.projection.ProjectionMapper";
+    private static final String SUFFIX = "_Projection";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    error(element, "@GeneratedProjection 은 인터페이스에만 사용할 수 있습니다.");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    error(element, "프로젝션 클래스 생성 실패: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        List<Property> properties = properties(type);
+        if (properties == null) {
+            return;
+        }
+        String packageName = packageName(type);
+        String className = generatedName(type);
+        String typeName = type.getQualifiedName().toString();
+
+        List<String> paths = new ArrayList<>();
+        collectPaths(type, "", paths);
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualified(packageName, className), type).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + ProjectionProcessor.class.getName() + "\")");
+            out.println("public final class " + className + " implements " + typeName + " {");
+            out.println("    public static final " + MAPPER + "<" + typeName + "> MAPPER = new " + MAPPER + "<" + typeName + ">(");
+            out.println("            " + typeName + ".class" + quoted(paths) + ") {");
+            out.println("        @Override");
+            out.println("        public " + typeName + " map(Object[] row, int offset) {");
+            out.println("            return new " + className + "(row, offset);");
+            out.println("        }");
+            out.println("    };");
+            out.println();
+            for (Property property : properties) {
+                out.println("    private final " + property.type + " " + property.name + ";");
+            }
+            out.println();
+            out.println("    " + className + "(Object[] row, int offset) {");
+            int column = 0;
+            for (Property property : properties) {
+                String offset = column == 0 ? "offset" : "offset + " + column;
+                if (property.nested != null) {
+                    out.println("        this." + property.name + " = " + qualified(packageName(property.nested), generatedName(property.nested))
+                            + ".MAPPER.mapNullable(row, " + offset + ");");
+                } else {
+                    out.println("        this." + property.name + " = (" + property.castType + ") row[" + offset + "];");
+                }
+                column += property.width;
+            }
+            out.println("    }");
+            for (Property property : properties) {
+                out.println();
+                out.println("    @Override");
+                out.println("    public " + property.type + " " + property.getter + "() {");
+                out.println("        return " + property.name + ";");
+                out.println("    }");
+            }
+            out.println();
+            out.println("    @Override");
+            out.println("    public String toString() {");
+            StringBuilder toString = new StringBuilder("\"" + type.getSimpleName() + "{");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                toString.append(i == 0 ? "" : ", ").append(property.name).append("=\" + ").append(property.name).append(" + \"");
+            }
+            toString.append("}\"");
+            out.println("        return " + toString + ";");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * 인터페이스의 추상 getter 목록, 지원하지 않는 메서드가 있으면 에러를 남기고 null
+     */
+    private List<Property> properties(TypeElement type) {
+        List<Property> properties = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue; // Object 메서드, default 메서드
+            }
+            String getter = method.getSimpleName().toString();
+            String name = propertyName(getter, method.getReturnType());
+            if (name == null || !method.getParameters().isEmpty()) {
+                error(method, "프로젝션 메서드는 파라미터 없는 getter 여야 합니다.");
+                valid = false;
+                continue;
+            }
+            TypeMirror returnType = method.getReturnType();
+            TypeElement nested = nestedProjection(returnType);
+            if (nested == null && isInterfaceWithoutAnnotation(returnType)) {
+                error(method, "중첩 프로젝션 " + returnType + " 에도 @GeneratedProjection 이 필요합니다.");
+                valid = false;
+                continue;
+            }
+            String castType = returnType.getKind().isPrimitive()
+                    ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType).getQualifiedName().toString()
+                    : processingEnv.getTypeUtils().erasure(returnType).toString();
+            int width = nested == null ? 1 : width(nested);
+            properties.add(new Property(name, getter, returnType.toString(), castType, nested, width));
+        }
+        return valid ? properties : null;
+    }
+
+    private void collectPaths(TypeElement type, String prefix, List<String> paths) {
+        List<Property> properties = properties(type);
+        if (properties == null) {
+            return; // 중첩 프로젝션의 에러는 해당 인터페이스를 처리할 때 보고된다.
+        }
+        for (Property property : properties) {
+            if (property.nested != null) {
+                collectPaths(property.nested, prefix + property.name + ".", paths);
+            } else {
+                paths.add(prefix + property.name);
+            }
+        }
+    }
+
+    private int width(TypeElement type) {
+        List<String> paths = new ArrayList<>();
+        collectPaths(type, "", paths);
+        return paths.size();
+    }
+
+    private TypeElement nestedProjection(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInterfaceWithoutAnnotation(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        Element element = ((DeclaredType) type).asElement();
+        String name = ((TypeElement) element).getQualifiedName().toString();
+        // 컬렉션 등 JDK 인터페이스는 값 그대로 사용
+        return element.getKind() == ElementKind.INTERFACE && !name.startsWith("java.");
+    }
+
+    private static String propertyName(String getter, TypeMirror returnType) {
+        String name;
+        if (getter.startsWith("get") && getter.length() > 3) {
+            name = getter.substring(3);
+        } else if (getter.startsWith("is") && getter.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+            name = getter.substring(2);
+        } else {
+            return null;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 패키지를 제외한 이름의 . 을 _ 로 바꾸고 _Projection (ProjectionMapper.of 와 같은 규칙)
+     */
+    private String generatedName(TypeElement type) {
+        String qualifiedName = type.getQualifiedName().toString();
+        String packageName = packageName(type);
+        String simpleName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return simpleName.replace('.', '_') + SUFFIX;
+    }
+
+    private String packageName(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.getQualifiedName().toString();
+    }
+
+    private static String qualified(String packageName, String className) {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    private static String quoted(List<String> paths) {
+        StringBuilder result = new StringBuilder();
+        for (String path : paths) {
+            result.append(", \"").append(path).append('"');
+        }
+        return result.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static class Property {
+        private final String name;
+        private final String getter;
+        private final String type;
+        private final String castType;
+        private final TypeElement nested;
+        private final int width;
+
+        private Property(String name, String getter, String type, String castType, TypeElement nested, int width) {
+            this.name = name;
+            this.getter = getter;
+            this.type = type;
+            this.castType = castType;
+            this.nested = nested;
+            this.width = width;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * - 임베디드 H2(메모리)에 스키마를 만들고 웹 서버 없이 JPA 계층만 사용한다.
+ * - 측정 대상이 조회 전략이므로 2차 캐시, 쿼리 캐시, SQL 로그는 끈다.
+ */
+public final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.main.banner-mode=off",
+                        "datajpa.sql-log.enabled=false",
+                        "datajpa.seed.members=0", // 벤치마크마다 직접 넣은 데이터만 조회
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.SQL=warn")
+                .run();
+    }
+
+    /**
+     * teamCount 개의 팀에 memberCount 명의 회원을 나눠서 저장한다. (username = "member" + i)
+     */
+    public static List<Team> seed(ConfigurableApplicationContext context, int memberCount, int teamCount) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team("team" + i));
+        }
+        teamRepository.saveAll(teams);
+
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            Member member = new Member("member" + i, i % 100);
+            member.setTeam(teams.get(i % teamCount)); // 벤치마크 데이터라 양방향 컬렉션은 채우지 않는다.
+            members.add(member);
+        }
+        memberRepository.saveAllBatched(members);
+        return teams;
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [낙관적 락 + 재시도 vs 비관적 락]
+ * 여러 스레드가 hotRows 개의 회원 중 하나를 골라 나이를 1 올리는 처리량을 측정한다. (hotRows 가 작을수록 경합이 심함)
+ * - optimistic: addAgeOptimistic, 같은 id 는 JVM 안에서 줄을 서고 버전 충돌이면 재시도 (OptimisticUpdateExecutor)
+ * - pessimistic: select ... for update 로 읽고 수정, DB 에서 줄을 서는 동안 커넥션을 잡고 있다.
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=OptimisticUpdateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class OptimisticUpdateBenchmark {
+    @Param({"1", "64"})
+    public int hotRows;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transaction;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("optimistic-update");
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        members = new ArrayList<>(hotRows);
+        for (int i = 0; i < hotRows; i++) {
+            members.add(new Member("hot" + i, 0));
+        }
+        memberRepository.saveAll(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int optimistic() {
+        return memberRepository.addAgeOptimistic(pick().getId(), 1);
+    }
+
+    @Benchmark
+    public int pessimistic() {
+        String username = pick().getUsername();
+        return transaction.execute(status -> {
+            Member member = memberRepository.findLockByUsername(username).get(0); // select ... for update
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+
+    private Member pick() {
+        return members.get(ThreadLocalRandom.current().nextInt(members.size()));
+    }
+}
@@ -0,0 +1,108 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [스프링 데이터 프로젝션 vs 생성 프로젝션]
+ * 같은 username 을 가진 memberCount 명을 프로젝션으로 조회하고 모든 getter 를 호출한다.
+ * - spring*: 스프링 데이터의 프록시 기반 프로젝션 (findProjectionsByUsername, findDynamicProjectionsByUsername)
+ * - generated*: @GeneratedProjection 으로 생성한 구현 클래스 (findGeneratedProjectionsByUsername)
+ * gc 프로파일러의 gc.alloc.rate.norm 으로 호출당 할당량을 비교한다.
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=ProjectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+    private static final String USERNAME = "projected";
+
+    @Param("1000")
+    public int memberCount;
+
+    @Param("10")
+    public int teamCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("projection");
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Team> teams = BenchmarkContext.seed(context, 0, teamCount);
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            Member member = new Member(USERNAME, i % 100);
+            member.setTeam(teams.get(i % teamCount));
+            members.add(member);
+        }
+        memberRepository.saveAllBatched(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void springInterfaceProjection(Blackhole blackhole) {
+        List<UsernameOnly> result = readOnly.execute(status -> memberRepository.findProjectionsByUsername(USERNAME));
+        for (UsernameOnly projection : result) {
+            blackhole.consume(projection.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void generatedInterfaceProjection(Blackhole blackhole) {
+        List<UsernameOnly> result = readOnly.execute(status -> memberRepository.findGeneratedProjectionsByUsername(USERNAME, UsernameOnly.class));
+        for (UsernameOnly projection : result) {
+            blackhole.consume(projection.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void springNestedProjection(Blackhole blackhole) {
+        List<NestedClosedProjections> result = readOnly.execute(status -> memberRepository.findDynamicProjectionsByUsername(USERNAME, NestedClosedProjections.class));
+        consumeNested(result, blackhole);
+    }
+
+    @Benchmark
+    public void generatedNestedProjection(Blackhole blackhole) {
+        List<NestedClosedProjections> result = readOnly.execute(status -> memberRepository.findGeneratedProjectionsByUsername(USERNAME, NestedClosedProjections.class));
+        consumeNested(result, blackhole);
+    }
+
+    private static void consumeNested(List<NestedClosedProjections> result, Blackhole blackhole) {
+        for (NestedClosedProjections projection : result) {
+            blackhole.consume(projection.getUsername());
+            blackhole.consume(projection.getTeam().getName());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.UsernameOnly;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [조회 전략별 성능 비교]
+ * 회원 + 팀 이름을 가져오는 여러 방법을 같은 데이터로 측정한다.
+ * 매 호출을 읽기 전용 트랜잭션으로 감싸서 영속성 컨텍스트가 호출마다 새로 만들어지게 한다. (실제 요청과 같은 조건)
+ * 엔티티 조회 결과는 팀 이름까지 접근해서 DTO 조회와 같은 일을 하게 맞춘다.
+ * 회원은 모두 같은 username 으로 저장해서, username 으로 조회하는 interfaceProjection 도 다른 방법과 같은 memberCount 건을 읽는다.
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=RepositoryFetchBenchmark -Pjmh.members=10000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RepositoryFetchBenchmark {
+    private static final String USERNAME = "fetched";
+    @Param("1000")
+    public int memberCount;
+
+    @Param("10")
+    public int teamCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("fetch");
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Team> teams = BenchmarkContext.seed(context, 0, teamCount);
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            Member member = new Member(USERNAME, i % 100);
+            member.setTeam(teams.get(i % teamCount));
+            members.add(member);
+        }
+        memberRepository.saveAllBatched(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int fetchJoin() {
+        return readOnly.execute(status -> touchTeams(memberRepository.findMemberFetchJoin()));
+    }
+
+    @Benchmark
+    public int entityGraph() {
+        return readOnly.execute(status -> touchTeams(memberRepository.findMemberEntityGraph()));
+    }
+
+    @Benchmark
+    public int findAllEntityGraph() {
+        return readOnly.execute(status -> touchTeams(memberRepository.findAll()));
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoProjection() {
+        return readOnly.execute(status -> memberRepository.findMemberDto());
+    }
+
+    @Benchmark
+    public List<UsernameOnly> interfaceProjection() {
+        return readOnly.execute(status -> memberRepository.findProjectionsByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public Page<MemberProjection> nativeProjection() {
+        return readOnly.execute(status -> memberRepository.findByNativeProjection(PageRequest.of(0, memberCount)));
+    }
+
+    private static int touchTeams(List<Member> members) {
+        int length = 0;
+        for (Member member : members) {
+            length += member.getTeam().getName().length();
+        }
+        return length;
+    }
+}
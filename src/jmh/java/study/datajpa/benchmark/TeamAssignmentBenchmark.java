@@ -0,0 +1,80 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [팀 배정 비용 vs 팀 크기]
+ * 회원 한명을 팀에 배정(insert)하는 비용을 팀의 회원 수별로 측정한다.
+ * - changeTeam: Member.changeTeam, 로딩되지 않은 members 컬렉션은 건드리지 않는다. (팀 크기와 무관해야 함)
+ * - loadCollection: 예전 방식처럼 team.getMembers().add() 로 컬렉션 전체를 로딩 (팀 크기에 비례)
+ * 매 호출은 롤백하는 트랜잭션에서 실행해서 팀 크기가 변하지 않게 한다.
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=TeamAssignmentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamAssignmentBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int teamSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager em;
+    private Long teamId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("team-assignment");
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class); // 트랜잭션에 바인딩되는 공유 EntityManager
+        teamId = BenchmarkContext.seed(context, teamSize, 1).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member changeTeam() {
+        return transaction.execute(status -> {
+            Member member = new Member("assigned", 20, em.find(Team.class, teamId));
+            em.persist(member);
+            em.flush();
+            status.setRollbackOnly();
+            return member;
+        });
+    }
+
+    @Benchmark
+    public Member loadCollection() {
+        return transaction.execute(status -> {
+            Team team = em.find(Team.class, teamId);
+            Member member = new Member("assigned", 20);
+            member.setTeam(team);
+            team.getMembers().add(member); // 컬렉션 초기화 -> 팀 회원 전체 조회
+            em.persist(member);
+            em.flush();
+            status.setRollbackOnly();
+            return member;
+        });
+    }
+}
@@ -1,32 +1,37 @@
 package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.datajpa.audit.TransactionScopedAuditorAware;
 
-import java.util.Optional;
 import java.util.UUID;
 
-@EnableJpaAuditing // 스프링 데이터 JPA를 이용해 Auditing을 사용하기 위한 필수 어노테이션
+@EnableJpaAuditing(dateTimeProviderRef = "auditDateTimeProvider") // 스프링 데이터 JPA를 이용해 Auditing을 사용하기 위한 필수 어노테이션 (시각은 AuditClock 사용)
 @SpringBootApplication
 // @EnableJpaRepositories(basePackages = "study.datajpa.repository") 스프링 부트 사용 시 JavaConfig 설정 생략 가능
 public class DataJpaApplication {
+	private static final int STARTUP_BUFFER_CAPACITY = 10000; // 빈 하나당 여러 단계가 기록되므로 넉넉하게
 
 	public static void main(String[] args) {
-		SpringApplication.run(DataJpaApplication.class, args);
+		SpringApplication application = new SpringApplication(DataJpaApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_BUFFER_CAPACITY)); // 기동 단계별 시간 기록 (/stats/startup)
+		application.run(args);
 	}
 
 	/**
 	 * 등록자, 수정자를 처리해주는 AuditorAware 스프링 빈 등록
 	 * 실무에선 세션 정보나 스프링 시큐리티 로그인 정보에서 ID를 받음.
 	 * 여기서 등록자, 수정자에 값을 채워준다.
+	 * 엔티티마다 조회하지 않도록 트랜잭션마다 한번만 조회해서 재사용한다.
 	 */
 	@Bean
 	public AuditorAware<String> auditorProvider(){
-		return () -> Optional.of(UUID.randomUUID().toString());
+		return new TransactionScopedAuditorAware(() -> UUID.randomUUID().toString());
 	}
 
 }
@@ -0,0 +1,66 @@
+package study.datajpa.audit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * [flush 단위 감사 시각]
+ * 엔티티마다 LocalDateTime.now() 를 호출하지 않고, 한 flush 에서 저장/수정되는 엔티티는 같은 시각을 쓴다.
+ * - 시각은 현재 트랜잭션의 리소스로 바인딩하고(TransactionSynchronizationManager), 트랜잭션이 끝나면 해제한다.
+ *   REQUIRES_NEW 로 바깥 트랜잭션이 보류되면 같이 보류되므로 안쪽 트랜잭션은 자기 시각을 쓴다.
+ * - 첫 호출 때 시각을 정하고, flush 가 끝나면 비워서 다음 flush 는 새 시각을 사용 (AuditClockInterceptor)
+ * - 트랜잭션 동기화가 없으면 매번 현재 시각
+ */
+public final class AuditClock {
+    private static final Object KEY = AuditClock.class;
+
+    private AuditClock() {
+    }
+
+    public static LocalDateTime now() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return LocalDateTime.now();
+        }
+        Tick tick = (Tick) TransactionSynchronizationManager.getResource(KEY);
+        if (tick == null) {
+            tick = new Tick();
+            TransactionSynchronizationManager.bindResource(KEY, tick);
+            TransactionSynchronizationManager.registerSynchronization(tick);
+        }
+        if (tick.time == null) {
+            tick.time = LocalDateTime.now();
+        }
+        return tick.time;
+    }
+
+    /**
+     * 현재 트랜잭션의 시각을 비운다. (다음 호출 때 새로 정함)
+     */
+    public static void reset() {
+        Tick tick = (Tick) TransactionSynchronizationManager.getResource(KEY);
+        if (tick != null) {
+            tick.time = null;
+        }
+    }
+
+    private static class Tick implements TransactionSynchronization {
+        private LocalDateTime time;
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(KEY);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(KEY, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(KEY);
+        }
+    }
+}
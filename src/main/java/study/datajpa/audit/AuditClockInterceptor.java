@@ -0,0 +1,16 @@
+package study.datajpa.audit;
+
+import org.hibernate.EmptyInterceptor;
+
+import java.util.Iterator;
+
+/**
+ * flush 가 끝날 때마다 AuditClock 을 초기화 (다음 flush 는 새 시각을 사용, 트랜잭션 종료 시 해제는 AuditClock 이 직접)
+ */
+public class AuditClockInterceptor extends EmptyInterceptor {
+
+    @Override
+    public void postFlush(Iterator entities) {
+        AuditClock.reset();
+    }
+}
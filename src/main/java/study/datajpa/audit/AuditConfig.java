@@ -0,0 +1,29 @@
+package study.datajpa.audit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.util.Optional;
+
+@Configuration
+public class AuditConfig {
+
+    /**
+     * @CreatedDate, @LastModifiedDate 에 flush 단위 시각 사용 (@EnableJpaAuditing 의 dateTimeProviderRef)
+     */
+    @Bean
+    public DateTimeProvider auditDateTimeProvider() {
+        return () -> Optional.of(AuditClock.now());
+    }
+
+    /**
+     * flush 가 끝날 때 AuditClock 초기화
+     */
+    @Bean
+    public HibernatePropertiesCustomizer auditClockCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new AuditClockInterceptor());
+    }
+}
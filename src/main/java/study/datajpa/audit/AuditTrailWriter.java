@@ -0,0 +1,187 @@
+package study.datajpa.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.BaseEntity;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [비동기 배치 변경 이력 기록]
+ * 커밋된 insert / update / delete 를 큐에 넣고, 별도 스레드가 모아서 JDBC 배치 insert 로 audit_trail 에 기록한다.
+ * - 업무 트랜잭션은 이력 insert 를 기다리지 않는다. (이력은 커밋 후 조금 늦게 기록된다)
+ * - 커밋 후 처리를 막지 않도록 큐에는 기다리지 않고 넣는다. 큐가 가득 차면 이력을 버리고 dropped 로 센다. (/stats/audit-trail)
+ * - 애플리케이션 종료 시 큐에 남은 이력을 모두 기록한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.audit-trail.enabled", havingValue = "true")
+public class AuditTrailWriter implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final String INSERT_SQL =
+            "insert into audit_trail (entity_name, entity_id, action, auditor, occurred_at) values (?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker = new Thread(this::run, "audit-trail-writer");
+    private volatile boolean running = true;
+
+    public AuditTrailWriter(EntityManagerFactory emf, JdbcTemplate jdbcTemplate,
+                            @Value("${datajpa.audit-trail.queue-capacity:10000}") int queueCapacity,
+                            @Value("${datajpa.audit-trail.batch-size:500}") int batchSize,
+                            @Value("${datajpa.audit-trail.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.emf = emf;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getPersister(), event.getId(), event.getEntity(), "INSERT");
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getPersister(), event.getId(), event.getEntity(), "UPDATE");
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueue(event.getPersister(), event.getId(), event.getEntity(), "DELETE");
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    private void enqueue(EntityPersister persister, Object id, Object entity, String action) {
+        String auditor = entity instanceof BaseEntity ? ((BaseEntity) entity).getLastModifiedBy() : null;
+        AuditEvent event = new AuditEvent(persister.getEntityName(), String.valueOf(id), action, auditor, AuditClock.now());
+        if (!queue.offer(event)) {
+            long count = dropped.incrementAndGet();
+            if (Long.bitCount(count) == 1) { // 1, 2, 4, 8 ... 건째에만 남겨서 로그가 쏟아지지 않게
+                log.warn("변경 이력 큐가 가득 차서 이력을 버렸습니다. 누적 {}건", count);
+            }
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                break; // 종료 요청
+            }
+        }
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.entityName);
+                ps.setString(2, event.entityId);
+                ps.setString(3, event.action);
+                ps.setString(4, event.auditor);
+                ps.setTimestamp(5, Timestamp.valueOf(event.occurredAt));
+            });
+        } catch (RuntimeException e) {
+            log.warn("변경 이력 {}건 기록 실패", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static class AuditEvent {
+        private final String entityName;
+        private final String entityId;
+        private final String action;
+        private final String auditor;
+        private final LocalDateTime occurredAt;
+
+        private AuditEvent(String entityName, String entityId, String action, String auditor, LocalDateTime occurredAt) {
+            this.entityName = entityName;
+            this.entityId = entityId;
+            this.action = action;
+            this.auditor = auditor;
+            this.occurredAt = occurredAt;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * [트랜잭션 단위 등록자/수정자 캐시]
+ * 엔티티마다 등록자를 조회하지 않고 트랜잭션마다 한번만 resolver 를 호출해서 트랜잭션 리소스에 보관한다.
+ * - REQUIRES_NEW 로 바깥 트랜잭션이 중단되면 같이 내려놓았다가 재개될 때 다시 바인딩한다.
+ * - 트랜잭션(동기화)이 없으면 매번 resolver 를 호출한다.
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+    private final Supplier<String> resolver;
+
+    public TransactionScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.ofNullable(resolver.get());
+        }
+        AuditorHolder holder = (AuditorHolder) TransactionSynchronizationManager.getResource(this);
+        if (holder == null) {
+            holder = new AuditorHolder(resolver.get());
+            TransactionSynchronizationManager.bindResource(this, holder);
+            TransactionSynchronizationManager.registerSynchronization(holder);
+        }
+        return Optional.ofNullable(holder.auditor);
+    }
+
+    private class AuditorHolder implements TransactionSynchronization {
+        private final String auditor;
+
+        private AuditorHolder(String auditor) {
+            this.auditor = auditor;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TransactionScopedAuditorAware.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransactionScopedAuditorAware.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditorAware.this);
+        }
+    }
+}
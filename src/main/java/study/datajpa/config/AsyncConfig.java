@@ -0,0 +1,93 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * [비동기 리포지토리 실행]
+ * - @Async(AsyncConfig.REPOSITORY_EXECUTOR) 리포지토리 메서드는 repositoryExecutor 에서 실행된다.
+ * - 동시에 DB 작업을 하는 스레드 수를 커넥션 풀 크기로 맞춰서, 커넥션을 기다리며 블로킹되는 스레드가 생기지 않게 한다.
+ *
+ * datajpa.virtual-threads.enabled=true 이고 JDK 가 지원하면
+ * - 리포지토리 작업을 가상 스레드에서 실행 (동시에 커넥션을 쓰는 작업 수는 세마포어로 제한)
+ * - 톰캣 요청 처리도 가상 스레드에서 실행
+ */
+@Slf4j
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+
+    @Bean(name = REPOSITORY_EXECUTOR)
+    public TaskExecutor repositoryExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                           @Value("${datajpa.async.queue-capacity:100}") int queueCapacity,
+                                           @Value("${datajpa.virtual-threads.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return new BoundedVirtualThreadExecutor(poolSize);
+        }
+        if (virtualThreads) {
+            log.warn("가상 스레드를 지원하지 않는 JDK({}) 입니다. 스레드 풀을 사용합니다.", System.getProperty("java.version"));
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-");
+        // 큐가 가득 차면 호출한 스레드가 직접 실행 -> 요청 스레드가 느려지는 것으로 자연스럽게 유입량이 조절된다.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datajpa.virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (VirtualThreads.isSupported()) {
+                protocolHandler.setExecutor(VirtualThreads.newExecutor());
+            }
+        };
+    }
+
+    /**
+     * 작업마다 가상 스레드를 만들되, 커넥션을 쓰는 구간은 세마포어로 poolSize 개까지만 허용
+     * 대기는 가상 스레드 안에서 하므로 호출한 스레드는 블로킹되지 않는다.
+     */
+    static class BoundedVirtualThreadExecutor implements TaskExecutor, DisposableBean {
+        private final ExecutorService executor = VirtualThreads.newExecutor();
+        private final Semaphore permits;
+
+        BoundedVirtualThreadExecutor(int permits) {
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            executor.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void destroy() {
+            executor.shutdown();
+        }
+    }
+}
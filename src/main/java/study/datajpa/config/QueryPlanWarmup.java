@@ -0,0 +1,289 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQuery;
+import javax.persistence.Parameter;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.stream.BaseStream;
+
+/**
+ * [쿼리 플랜 캐시 워밍업]
+ * JPQL 은 처음 실행할 때 파싱해서 쿼리 플랜 캐시에 올라가므로, 그대로 두면 배포 직후 실제 요청이 파싱 비용을 치른다.
+ * ApplicationRunner 는 ApplicationReadyEvent (readiness: ACCEPTING_TRAFFIC) 전에 실행되므로 요청을 받기 전에 다음을 실행한다.
+ *
+ * 1. 파싱: 엔티티의 @NamedQuery + 리포지토리의 @Query(JPQL) 를 createQuery 로 파싱만 해서 쿼리 플랜 캐시에 올리고 걸린 시간을 기록한다.
+ *  - @NamedQuery 는 hibernate.query.startup_check (기본 true) 로 세션 팩토리를 만들 때 이미 검증, 캐시되므로
+ *    워밍업을 꺼도 잘못된 JPQL 은 애플리케이션 로딩에서 실패한다. (여기서는 새 플랜으로 세지 않는다)
+ *  - 메서드 이름으로 만드는 쿼리는 실행할 때 JPQL 이 만들어지므로 2 에서 처리한다.
+ * 2. 실행 (datajpa.warmup.iterations > 0 일 때만, 기본 꺼짐): 짧은 합성 워밍업
+ *  - 리포지토리 조회 메서드(메서드 이름 쿼리 포함)와 조회 @NamedQuery 를 임의의 파라미터로 iterations 번 실행하고 롤백한다.
+ *  - 메서드 이름 쿼리도 플랜 캐시에 올라가고, 엔티티 / DTO 매핑 코드가 JIT 컴파일된다.
+ *  - 수정 쿼리, 비동기, 스트림, 동적 프로젝션(Class 파라미터) 메서드와 파라미터 타입을 알 수 없는 쿼리는 제외
+ *  - 워밍업 호출도 리포지토리 메트릭(/stats/repository)에 집계된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryPlanWarmup implements ApplicationRunner {
+    private final EntityManagerFactory emf;
+    private final ApplicationContext applicationContext;
+    private final TransactionTemplate warmupTransaction;
+    private final int iterations;
+
+    @Getter private List<String> parsedQueries = Collections.emptyList();
+    @Getter private long newPlans;
+    @Getter private long parseMillis;
+    @Getter private List<String> warmedMethods = Collections.emptyList();
+    @Getter private List<String> warmedNamedQueries = Collections.emptyList();
+    @Getter private int failed;
+    @Getter private long warmupMillis;
+
+    public QueryPlanWarmup(EntityManagerFactory emf, ApplicationContext applicationContext,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${datajpa.warmup.iterations:0}") int iterations) {
+        this.emf = emf;
+        this.applicationContext = applicationContext;
+        this.warmupTransaction = new TransactionTemplate(transactionManager);
+        this.warmupTransaction.setReadOnly(true);
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        parseQueries();
+        if (iterations > 0) {
+            warmUp(iterations);
+        }
+    }
+
+    private void parseQueries() {
+        Statistics statistics = emf.unwrap(SessionFactoryImplementor.class).getStatistics();
+        Set<String> queries = collectQueries(new Repositories(applicationContext));
+
+        List<String> parsed = new ArrayList<>(queries.size());
+        List<String> failures = new ArrayList<>();
+        long missesBefore = statistics.getQueryPlanCacheMissCount();
+        long start = System.nanoTime();
+        EntityManager em = emf.createEntityManager();
+        try {
+            for (String query : queries) {
+                try {
+                    em.createQuery(query); // 파싱만 (쿼리 플랜 캐시)
+                    parsed.add(query);
+                } catch (RuntimeException e) {
+                    failures.add(query + " (" + e.getMessage() + ")");
+                }
+            }
+        } finally {
+            em.close();
+        }
+        parseMillis = (System.nanoTime() - start) / 1_000_000;
+        parsedQueries = Collections.unmodifiableList(parsed);
+        newPlans = statistics.isStatisticsEnabled() ? statistics.getQueryPlanCacheMissCount() - missesBefore : -1;
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("JPQL 파싱 실패: " + failures);
+        }
+        log.info("query plan warmup: parsed {} queries ({} new plans) in {} ms", parsed.size(), newPlans, parseMillis);
+    }
+
+    private Set<String> collectQueries(Repositories repositories) {
+        Set<String> queries = new LinkedHashSet<>();
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                queries.add(namedQuery.query());
+            }
+        }
+        for (Class<?> domainType : repositories) {
+            for (Method method : repositories.getRequiredRepositoryInformation(domainType).getQueryMethods()) {
+                Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+                if (query == null || query.nativeQuery()) {
+                    continue;
+                }
+                // SpEL 이 들어간 쿼리는 실행할 때 치환되므로 파싱할 수 없다.
+                if (!query.value().isEmpty() && !query.value().contains("#{")) {
+                    queries.add(query.value());
+                }
+                if (!query.countQuery().isEmpty() && !query.countQuery().contains("#{")) {
+                    queries.add(query.countQuery());
+                }
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * 리포지토리 조회 메서드와 조회 @NamedQuery 를 iterations 번씩 실행한다. (읽기 전용 트랜잭션, 항상 롤백)
+     */
+    public void warmUp(int iterations) {
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> methods = new ArrayList<>();
+        List<String> namedQueries = new ArrayList<>();
+        int failures = 0;
+        long start = System.nanoTime();
+        for (Class<?> domainType : repositories) {
+            Object repository = repositories.getRepositoryFor(domainType).orElse(null);
+            if (repository == null) {
+                continue;
+            }
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                Object[] arguments = placeholderArguments(method);
+                if (arguments == null) {
+                    continue;
+                }
+                if (repeat(iterations, () -> invoke(repository, method, arguments))) {
+                    methods.add(information.getRepositoryInterface().getSimpleName() + "." + method.getName());
+                } else {
+                    failures++;
+                }
+            }
+        }
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                if (!isSelect(namedQuery.query())) {
+                    continue;
+                }
+                if (repeat(iterations, () -> executeNamedQuery(namedQuery.name()))) {
+                    namedQueries.add(namedQuery.name());
+                } else {
+                    failures++;
+                }
+            }
+        }
+        warmupMillis = (System.nanoTime() - start) / 1_000_000;
+        warmedMethods = Collections.unmodifiableList(methods);
+        warmedNamedQueries = Collections.unmodifiableList(namedQueries);
+        failed = failures;
+        log.info("repository warmup: {} methods, {} named queries x {} iterations ({} failed) in {} ms",
+                methods.size(), namedQueries.size(), iterations, failures, warmupMillis);
+    }
+
+    private boolean repeat(int iterations, Runnable call) {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                warmupTransaction.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    call.run();
+                });
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("warmup failed", e);
+            return false;
+        }
+    }
+
+    private static void invoke(Object repository, Method method, Object[] arguments) {
+        try {
+            method.invoke(repository, arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private void executeNamedQuery(String name) {
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        javax.persistence.Query query = em.createNamedQuery(name);
+        for (Parameter<?> parameter : query.getParameters()) {
+            Object value = parameter.getParameterType() != null ? placeholder(parameter.getParameterType()) : null;
+            if (value == null) {
+                throw new IllegalStateException("파라미터 타입을 알 수 없음: " + name + "." + parameter);
+            }
+            if (parameter.getName() != null) {
+                query.setParameter(parameter.getName(), value);
+            } else {
+                query.setParameter(parameter.getPosition(), value);
+            }
+        }
+        query.setMaxResults(1).getResultList();
+    }
+
+    private static boolean isSelect(String query) {
+        String jpql = query.trim().toLowerCase(Locale.ROOT);
+        return jpql.startsWith("select") || jpql.startsWith("from");
+    }
+
+    /**
+     * 워밍업할 수 없는 메서드면 null
+     */
+    private static Object[] placeholderArguments(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class) || AnnotatedElementUtils.hasAnnotation(method, Async.class)
+                || Future.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)
+                || BaseStream.class.isAssignableFrom(returnType)) {
+            return null;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object argument = placeholder(types[i]);
+            if (argument == null) {
+                return null;
+            }
+            arguments[i] = argument;
+        }
+        return arguments;
+    }
+
+    private static Object placeholder(Class<?> type) {
+        if (type == String.class) {
+            return "";
+        }
+        if (type == int.class || type == Integer.class) {
+            return 0;
+        }
+        if (type == long.class || type == Long.class) {
+            return 0L;
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            // 빈 컬렉션은 "in ()" 이 되므로 null 하나
+            if (type.isAssignableFrom(List.class)) {
+                return Collections.singletonList(null);
+            }
+            if (type.isAssignableFrom(Set.class)) {
+                return Collections.singleton(null);
+            }
+        }
+        return null;
+    }
+}
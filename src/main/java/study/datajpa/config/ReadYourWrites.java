@@ -0,0 +1,34 @@
+package study.datajpa.config;
+
+/**
+ * [read-your-writes]
+ * 요청 안에서 쓰기 트랜잭션이 한번이라도 실행되면, 그 요청의 이후 읽기는 레플리카가 아니라 primary 로 보낸다.
+ * (레플리카 복제 지연 때문에 방금 쓴 데이터를 못 읽는 문제 방지)
+ * 범위는 ReadYourWritesFilter 가 요청 단위로 열고 닫는다. 범위 밖(배치 스레드 등)에서는 동작하지 않는다.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<boolean[]> SCOPE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void begin() {
+        SCOPE.set(new boolean[1]);
+    }
+
+    public static void end() {
+        SCOPE.remove();
+    }
+
+    static void markWritten() {
+        boolean[] written = SCOPE.get();
+        if (written != null) {
+            written[0] = true;
+        }
+    }
+
+    static boolean hasWritten() {
+        boolean[] written = SCOPE.get();
+        return written != null && written[0];
+    }
+}
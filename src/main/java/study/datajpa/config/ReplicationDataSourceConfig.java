@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [읽기/쓰기 DataSource 분리]
+ * datajpa.datasource.replication.enabled=true 면 spring.datasource 대신 primary + replicas 로 구성한 라우팅 DataSource 를 사용한다.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+@ConditionalOnProperty(name = "datajpa.datasource.replication.enabled", havingValue = "true")
+public class ReplicationDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(ReplicationProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicationProperties.Node replica : properties.getReplicas()) {
+            replicas.add(build(replica));
+        }
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(
+                build(properties.getPrimary()), replicas, properties.getPolicy(), properties.getHealthRetryMillis());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    private static DataSource build(ReplicationProperties.Node node) {
+        return DataSourceBuilder.create()
+                .url(node.getUrl())
+                .username(node.getUsername())
+                .password(node.getPassword())
+                .build();
+    }
+}
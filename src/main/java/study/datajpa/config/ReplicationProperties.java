@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [읽기/쓰기 DataSource 분리 설정]
+ * datajpa.datasource.replication.enabled=true 일 때만 사용한다.
+ */
+@Getter @Setter
+@ConfigurationProperties("datajpa.datasource.replication")
+public class ReplicationProperties {
+    private boolean enabled;
+    private Node primary = new Node();
+    private List<Node> replicas = new ArrayList<>();
+    private ReplicationRoutingDataSource.SelectionPolicy policy = ReplicationRoutingDataSource.SelectionPolicy.ROUND_ROBIN;
+    /**
+     * 연결에 실패한 레플리카를 다시 시도하기까지 대기 시간
+     */
+    private long healthRetryMillis = 5000;
+
+    @Getter @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,138 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * [읽기/쓰기 라우팅 DataSource]
+ * - @Transactional(readOnly = true) 트랜잭션 → 레플리카
+ *  - 스프링 데이터 JPA 의 조회 메서드는 기본이 readOnly 트랜잭션이므로
+ *    findReadOnlyByUsername 같은 org.hibernate.readOnly 힌트 쿼리도 바깥에 쓰기 트랜잭션이 없으면 레플리카로 간다.
+ * - 그 외(쓰기 트랜잭션, 트랜잭션 없음) → primary
+ * - 레플리카 선택: ROUND_ROBIN / LEAST_CONNECTIONS (이 DataSource 를 통해 빌려간 커넥션 수 기준)
+ * - 커넥션 획득에 실패한 레플리카는 healthRetryMillis 동안 제외, 사용 가능한 레플리카가 없으면 primary 로 보낸다.
+ *
+ * 주의: 트랜잭션 시작 시점엔 readOnly 여부가 아직 설정되지 않았으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 실제 쿼리를 실행할 때 커넥션을 가져오도록 해야 한다.
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractDataSource {
+
+    public enum SelectionPolicy {ROUND_ROBIN, LEAST_CONNECTIONS}
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final SelectionPolicy policy;
+    private final long healthRetryMillis;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public ReplicationRoutingDataSource(DataSource primary, List<DataSource> replicas, SelectionPolicy policy, long healthRetryMillis) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.policy = policy;
+        this.healthRetryMillis = healthRetryMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!readOnlyRoute()) {
+            return connect(primary, username, password);
+        }
+        for (Replica replica : candidates()) {
+            try {
+                return replica.connect(username, password);
+            } catch (SQLException e) {
+                replica.markDown(healthRetryMillis);
+                log.warn("레플리카 연결 실패, {}ms 동안 제외: {}", healthRetryMillis, replica.name, e);
+            }
+        }
+        return connect(primary, username, password); // 사용 가능한 레플리카가 없으면 primary
+    }
+
+    private boolean readOnlyRoute() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReadYourWrites.markWritten();
+        }
+        return readOnly && !replicas.isEmpty() && !ReadYourWrites.hasWritten();
+    }
+
+    private List<Replica> candidates() {
+        long now = System.currentTimeMillis();
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        int start = Math.floorMod(sequence.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUp(now)) {
+                healthy.add(replica);
+            }
+        }
+        if (policy == SelectionPolicy.LEAST_CONNECTIONS) {
+            healthy.sort(Comparator.comparingInt(r -> r.active.get())); // 안정 정렬이라 같으면 라운드 로빈 순서 유지
+        }
+        return healthy;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long downUntil;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isUp(long now) {
+            return downUntil <= now;
+        }
+
+        private void markDown(long millis) {
+            downUntil = System.currentTimeMillis() + millis;
+        }
+
+        /**
+         * close 될 때 사용 중인 커넥션 수를 줄이기 위해 프록시로 감싼다.
+         */
+        private Connection connect(String username, String password) throws SQLException {
+            Connection target = ReplicationRoutingDataSource.connect(dataSource, username, password);
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [초기 데이터]
+ * 예전엔 MemberController 의 @PostConstruct 에서 넣었기 때문에 저장이 끝날 때까지 웹 서버가 뜨지 않았다.
+ * 이제 ApplicationReadyEvent 이후 repositoryExecutor 에서 배치 저장(saveAllBatched)한다.
+ * - 회원이 이미 있으면 넣지 않는다. (ddl-auto: validate 로 기존 스키마 / 데이터를 쓰는 경우)
+ * - 웹 서버를 띄운 경우에만 넣는다. (테스트의 MOCK 웹 환경, 벤치마크에서는 넣지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SampleDataSeeder {
+    private final MemberRepository memberRepository;
+
+    @Value("${datajpa.seed.members:100}")
+    private int memberCount;
+
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @EventListener
+    public void seed(ApplicationReadyEvent event) {
+        if (memberCount <= 0 || !(event.getApplicationContext() instanceof WebServerApplicationContext)) {
+            return;
+        }
+        if (memberRepository.count() > 0) {
+            log.info("sample data: members already exist, skipped");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member("user" + i, i));
+        }
+        int saved = memberRepository.saveAllBatched(members);
+        log.info("sample data: saved {} members in {} ms", saved, System.currentTimeMillis() - start);
+    }
+}
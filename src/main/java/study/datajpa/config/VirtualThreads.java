@@ -0,0 +1,43 @@
+package study.datajpa.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * [가상 스레드 (JDK 21+)]
+ * 프로젝트는 자바 11 로 컴파일하므로 Executors.newVirtualThreadPerTaskExecutor 를 리플렉션으로 호출한다.
+ * 지원하지 않는 JDK 에서는 isSupported() 가 false
+ */
+public final class VirtualThreads {
+    private static final Method NEW_EXECUTOR = find();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * 작업마다 가상 스레드를 하나씩 만드는 ExecutorService
+     */
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("가상 스레드를 지원하지 않는 JDK 입니다: " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드 Executor 생성 실패", e);
+        }
+    }
+
+    private static Method find() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -2,22 +2,37 @@ package study.datajpa.controller;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberExportService;
 
-import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000; // spring.data.web.pageable.max-page-size 와 동일하게 제한
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id){
@@ -39,14 +54,63 @@ public class MemberController {
     }
 
 
+    /**
+     * 비동기 조회
+     * - CompletableFuture 를 반환하면 서블릿 스레드는 바로 반납되고, 조회가 끝나면 응답을 이어서 쓴다.
+     */
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<String> findMemberAsync(@PathVariable("id") Long id){
+        return memberRepository.findAsyncById(id).thenApply(member -> {
+            if (member == null) {
+                throw new NoSuchElementException("회원이 없습니다: " + id);
+            }
+            return member.getUsername();
+        });
+    }
+
+    @GetMapping("/async/members")
+    public CompletableFuture<List<MemberDto>> findMembersAsync(@RequestParam String username){
+        return memberRepository.findAsyncByUsername(username) // team 은 @EntityGraph 로 같이 조회 (준영속이라 지연 로딩 불가)
+                .thenApply(members -> members.stream()
+                        .map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeam() == null ? null : m.getTeam().getName()))
+                        .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/async/members/dto")
+    public CompletableFuture<List<MemberDto>> findMemberDtoAsync(){
+        return memberRepository.findAsyncMemberDto();
+    }
+
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable){ // 스프링 데이터가 제공하는 페이징 기능 개별 설정
-        return memberRepository.findAll(pageable).map(MemberDto::new);
+        return memberRepository.findMemberDtoPage(pageable); // findAll(pageable).map(MemberDto::new) 은 row 마다 team 조회(N + 1)
     }
-    @PostConstruct
-    public void init(){
-        for(int i=0;i<100;i++){
-            memberRepository.save(new Member("user" + i, i));
+
+    /**
+     * 커서(keyset) 기반 페이징
+     * - 첫 요청은 cursor 없이, 이후엔 응답의 nextCursor 를 그대로 넘긴다.
+     * - count 쿼리가 나가지 않고, 페이지가 깊어져도 조회 비용이 일정하다.
+     * - 잘못된 커서는 400 (리포지토리 프록시가 IllegalArgumentException 을 InvalidDataAccessApiUsageException 으로 변환한다)
+     */
+    @GetMapping("/members/cursor")
+    public CursorPage<MemberDto> listByCursor(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "5") int size){
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        try {
+            return memberRepository.findMemberDtoByCursor(cursor, limit);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 커서입니다: " + cursor, e);
         }
     }
+
+    /**
+     * 전체 회원 내보내기 (format = ndjson | csv), 스트림 조회와 트랜잭션은 MemberExportService 에서
+     */
+    @GetMapping("/members/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        memberExportService.export(csv, response.getWriter());
+    }
 }
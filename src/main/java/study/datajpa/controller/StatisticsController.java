@@ -0,0 +1,210 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.audit.AuditTrailWriter;
+import study.datajpa.config.QueryPlanWarmup;
+import study.datajpa.monitoring.LatencyHistogram;
+import study.datajpa.monitoring.RepositoryMetrics;
+import study.datajpa.monitoring.SqlLogEntry;
+import study.datajpa.monitoring.SqlSampler;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 운영 중 확인용 통계 API
+ */
+@RestController
+@RequiredArgsConstructor
+public class StatisticsController {
+    private final EntityManagerFactory emf;
+    private final SqlSampler sqlSampler;
+    private final RepositoryMetrics repositoryMetrics;
+    private final ApplicationStartup applicationStartup;
+    private final ObjectProvider<QueryPlanWarmup> queryPlanWarmup;
+    private final ObjectProvider<AuditTrailWriter> auditTrailWriter;
+
+    /**
+     * 2차 캐시 리전별 hit / miss / put (하이버네이트 통계) + eviction (JCache JMX 통계)
+     */
+    @GetMapping("/stats/cache")
+    public Map<String, Object> cache() throws Exception {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> evictions = cacheEvictions();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("hit", region.getHitCount());
+            result.put("miss", region.getMissCount());
+            result.put("put", region.getPutCount());
+            result.put("eviction", evictions.getOrDefault(regionName, 0L));
+            regions.put(regionName, result);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hit", statistics.getSecondLevelCacheHitCount());
+        result.put("miss", statistics.getSecondLevelCacheMissCount());
+        result.put("put", statistics.getSecondLevelCachePutCount());
+        result.put("regions", regions);
+        return result;
+    }
+
+    /**
+     * 샘플링된 SQL 로그 (slow=true 면 느린 SQL 만), 최근 순
+     */
+    @GetMapping("/stats/sql")
+    public List<SqlLogEntry> sql(@RequestParam(defaultValue = "false") boolean slow) {
+        return slow ? sqlSampler.slow() : sqlSampler.sampled();
+    }
+
+    /**
+     * 샘플링 비율 변경 (0 ~ 1), 장애 분석 중엔 1 로 올려서 전체 SQL 을 기록
+     */
+    @PostMapping("/stats/sql/sample-rate")
+    public double sampleRate(@RequestParam double value) {
+        sqlSampler.setSampleRate(value);
+        return sqlSampler.getSampleRate();
+    }
+
+    /**
+     * 변경 이력 큐에 쌓인 수 / 큐가 가득 차서 버린 수 (datajpa.audit-trail.enabled=true 일 때만)
+     */
+    @GetMapping("/stats/audit-trail")
+    public Map<String, Object> auditTrail() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        AuditTrailWriter writer = auditTrailWriter.getIfAvailable();
+        result.put("enabled", writer != null);
+        if (writer != null) {
+            result.put("queued", writer.getQueued());
+            result.put("dropped", writer.getDropped());
+        }
+        return result;
+    }
+
+    /**
+     * 리포지토리 메서드별 호출 수 / 실패 수 / 반환 row 수 / 지연시간(ms) 백분위수
+     * + 하이버네이트 통계 (flush, 엔티티 로딩, 컬렉션 fetch, 쿼리 플랜 캐시 적중률)
+     */
+    @GetMapping("/stats/repository")
+    public Map<String, Object> repository() {
+        Map<String, Object> methods = new TreeMap<>();
+        for (RepositoryMetrics.MethodMetrics metrics : repositoryMetrics.all()) {
+            LatencyHistogram latency = metrics.getLatency();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", latency.count());
+            result.put("errors", metrics.getErrors());
+            result.put("rows", metrics.getRows());
+            result.put("mean", latency.meanMillis());
+            result.put("p50", latency.percentileMillis(50));
+            result.put("p90", latency.percentileMillis(90));
+            result.put("p99", latency.percentileMillis(99));
+            result.put("p999", latency.percentileMillis(99.9));
+            result.put("max", latency.maxMillis());
+            methods.put(metrics.getName(), result);
+        }
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long planHit = statistics.getQueryPlanCacheHitCount();
+        long planMiss = statistics.getQueryPlanCacheMissCount();
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("entityLoads", statistics.getEntityLoadCount());
+        hibernate.put("entityFetches", statistics.getEntityFetchCount());
+        hibernate.put("collectionLoads", statistics.getCollectionLoadCount());
+        hibernate.put("collectionFetches", statistics.getCollectionFetchCount());
+        hibernate.put("queryExecutions", statistics.getQueryExecutionCount());
+        hibernate.put("preparedStatements", statistics.getPrepareStatementCount());
+        hibernate.put("queryPlanCacheHit", planHit);
+        hibernate.put("queryPlanCacheMiss", planMiss);
+        hibernate.put("queryPlanCacheHitRatio", planHit + planMiss == 0 ? 0 : (double) planHit / (planHit + planMiss));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("methods", methods);
+        result.put("hibernate", hibernate);
+        return result;
+    }
+
+    /**
+     * 기동 시간 (DataJpaApplication.main 으로 실행한 경우만 기록된다. BufferingApplicationStartup)
+     * - 컨텍스트 refresh 시간
+     * - 빈 생성 시간이 긴 순서로 limit 개 (의존하는 빈의 생성 시간 포함)
+     * + 쿼리 플랜 워밍업 시간 (QueryPlanWarmup)
+     */
+    @GetMapping("/stats/startup")
+    public Map<String, Object> startup(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            List<StartupTimeline.TimelineEvent> events = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline().getEvents();
+            Map<String, Long> beans = new LinkedHashMap<>();
+            for (StartupTimeline.TimelineEvent event : events.stream()
+                    .filter(event -> "spring.beans.instantiate".equals(event.getStartupStep().getName()))
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList())) {
+                beans.put(tag(event.getStartupStep(), "beanName"), event.getDuration().toMillis());
+            }
+            events.stream()
+                    .filter(event -> "spring.context.refresh".equals(event.getStartupStep().getName()))
+                    .findFirst()
+                    .ifPresent(event -> result.put("contextRefresh", event.getDuration().toMillis()));
+            result.put("beans", beans);
+        }
+
+        QueryPlanWarmup warmup = queryPlanWarmup.getIfAvailable();
+        if (warmup != null) {
+            Map<String, Object> queries = new LinkedHashMap<>();
+            queries.put("parsed", warmup.getParsedQueries().size());
+            queries.put("newPlans", warmup.getNewPlans());
+            queries.put("parseMillis", warmup.getParseMillis());
+            queries.put("warmedMethods", warmup.getWarmedMethods().size());
+            queries.put("warmedNamedQueries", warmup.getWarmedNamedQueries().size());
+            queries.put("failed", warmup.getFailed());
+            queries.put("warmupMillis", warmup.getWarmupMillis());
+            result.put("queryPlanWarmup", queries);
+        }
+        return result;
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    private Map<String, Long> cacheEvictions() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Long> evictions = new LinkedHashMap<>();
+        for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+            evictions.put(name.getKeyProperty("Cache"), ((Number) server.getAttribute(name, "CacheEvictions")).longValue());
+        }
+        return evictions;
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * [커서(keyset) 기반 페이징 결과]
+ * - count 쿼리 없이 현재 윈도우의 데이터와 다음 윈도우를 조회할 때 넘겨줄 커서만 반환한다.
+ * - nextCursor 가 null 이면 마지막 윈도우
+ */
+@Getter
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 엔티티 변경 이력 (AuditTrailWriter 가 JDBC 배치로 기록, 테이블 생성과 조회에만 JPA 사용)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AuditTrail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_trail_id")
+    private Long id;
+    private String entityName;
+    private String entityId;
+    private String action;
+    private String auditor;
+    private LocalDateTime occurredAt;
+}
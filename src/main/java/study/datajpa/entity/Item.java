@@ -47,4 +47,15 @@ public class Item implements Persistable<String> {
         return createdDate == null;
     }
 
+    public LocalDateTime getCreatedDate(){
+        return createdDate;
+    }
+
+    /**
+     * JPA 밖(JDBC 업서트 등)에서 저장된 경우 저장된 등록시간을 채워서 새로운 엔티티가 아님을 표시
+     */
+    public void markPersisted(LocalDateTime createdDate){
+        this.createdDate = createdDate;
+    }
+
 }
@@ -2,6 +2,7 @@ package study.datajpa.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import study.datajpa.audit.AuditClock;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -21,13 +22,13 @@ public class JpaBaseEntity {
 
     @PrePersist // Persist 전에 이벤트 발생
     public void prePersist(){
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditClock.now(); // 같은 flush 의 엔티티는 같은 시각
         createdDate = now;
         updatedDate = now;
     }
 
     @PreUpdate // Update 전에 이벤트 발생
     public void preUpdate(){
-        updatedDate = LocalDateTime.now();
+        updatedDate = AuditClock.now();
     }
 }
@@ -1,18 +1,91 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
+/**
+ * [인덱스]
+ * ddl-auto 로 생성하는 스키마엔 PK 외의 인덱스가 없으므로 리포지토리 쿼리에 맞춰 선언한다. (실행 계획 검증: MemberQueryPlanTest)
+ * - username, age: username 조건 (+ age 조건) 조회 - findByUsername, findUser, findByUsernameAndAgeGreaterThan ...
+ * - age, username: age 조건 + username 정렬 페이징 - findByPage, findByPageAfter, age 조건 count (인덱스만 읽고 끝남)
+ * - team_id: 팀으로 회원 조회, 팀 조인
+ *
+ * [Named Query]
+ * MemberJpaRepository, MemberRepositoryImpl 에서 직접 작성하는 JPQL
+ * - 애플리케이션 로딩 시점에 파싱해서 쿼리 플랜 캐시에 올리고, 문법 오류가 있으면 로딩 시점에 실패한다. (QueryPlanWarmup)
+ * - 이름은 "클래스 이름.메서드 이름", 스프링 데이터 JPA 는 "Member.메서드 이름" 을 먼저 찾으므로 MemberRepository 메서드와 겹치지 않게 한다.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_team_id", columnList = "team_id")
+})
+@NamedQueries({
+        @NamedQuery(name = "MemberJpaRepository.findAll", query = "select m from Member m"),
+        @NamedQuery(name = "MemberJpaRepository.count", query = "select count(m) from Member m"),
+        @NamedQuery(name = "MemberJpaRepository.findByUsernameAndAgeGreaterThan",
+                query = "select m from Member m where m.username = :username and m.age > :age"),
+        @NamedQuery(name = "MemberJpaRepository.findByPage",
+                query = "select m from Member m where m.age = :age order by m.username desc"),
+        @NamedQuery(name = "MemberJpaRepository.findByPageFirst",
+                query = "select m from Member m where m.age = :age order by m.username desc nulls last, m.id desc"),
+        @NamedQuery(name = "MemberJpaRepository.findByPageAfter",
+                query = "select m from Member m where m.age = :age" +
+                        " and (m.username < :username or (m.username = :username and m.id < :id) or m.username is null)" +
+                        " order by m.username desc nulls last, m.id desc"),
+        @NamedQuery(name = "MemberJpaRepository.findByPageAfterNull",
+                query = "select m from Member m where m.age = :age and m.username is null and m.id < :id" +
+                        " order by m.username desc nulls last, m.id desc"),
+        @NamedQuery(name = "MemberJpaRepository.totalCount", query = "select count(m) from Member m where m.age = :age"),
+        @NamedQuery(name = "MemberJpaRepository.bulkAgePlus", query = "update versioned Member m set m.age = m.age + 1 where m.age >= :age"),
+        @NamedQuery(name = "MemberRepositoryImpl.findMemberCustom", query = "select m from Member m"),
+        @NamedQuery(name = "MemberRepositoryImpl.findMemberDtoByCursor",
+                query = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t" +
+                        " order by m.username nulls first, m.id"),
+        @NamedQuery(name = "MemberRepositoryImpl.findMemberDtoByCursorAfter",
+                query = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t" +
+                        " where m.username >= :username and (m.username > :username or m.id > :id)" + // username 범위 조건으로 인덱스 사용
+                        " order by m.username nulls first, m.id"),
+        @NamedQuery(name = "MemberRepositoryImpl.findMemberDtoByCursorAfterNull",
+                query = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t" +
+                        " where m.username is not null or m.id > :id" +
+                        " order by m.username nulls first, m.id"),
+        @NamedQuery(name = "MemberRepositoryImpl.findByNamesChunked", query = "select m from Member m where m.username in :names")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (리전 설정은 application.conf)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","username","age"})
 public class Member extends BaseEntity{
 
-    @Id @GeneratedValue
+    /**
+     * 시퀀스 + pooled 옵티마이저
+     * allocationSize 만큼 식별자를 한번에 할당받아 메모리에서 나눠 쓴다.
+     * (기본값인 allocationSize = 1 이면 persist 할 때마다 시퀀스 조회 쿼리가 나간다.)
+     * 또한 IDENTITY 전략과 달리 insert 전에 식별자를 알 수 있으므로 JDBC 배치 insert 가 가능하다.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
+
+    /**
+     * [낙관적 락]
+     * 수정할 때 "where version = 읽었던 버전" 조건으로 update 하고 버전을 올린다.
+     * 그 사이 다른 트랜잭션이 먼저 수정했다면 수정된 row 가 0 건이라 OptimisticLockingFailureException 이 발생한다. (OptimisticUpdateExecutor 에서 재시도)
+     */
+    @Version
+    private Long version;
     private String username;
     private int age;
 
@@ -38,8 +111,17 @@ public class Member extends BaseEntity{
         this.age = age;
     }
 
+    /**
+     * 팀 변경, 팀의 members 컬렉션은 로딩되어 있을 때만 맞춘다. (Team.addMember 참고)
+     * 팀이 초기화되지 않은 프록시면 컬렉션도 로딩되지 않은 것이므로 프록시를 초기화하지 않는다.
+     */
     public void changeTeam(Team team){
+        if (this.team != null && Hibernate.isInitialized(this.team)) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        if (Hibernate.isInitialized(team)) {
+            team.addMember(this);
+        }
     }
 }
@@ -1,27 +1,66 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedQueries({ // Member 의 Named Query 참고
+        @NamedQuery(name = "TeamJpaRepository.findAll", query = "select t from Team t"),
+        @NamedQuery(name = "TeamJpaRepository.count", query = "select count(t) from Team t"),
+        @NamedQuery(name = "TeamRepositoryImpl.findWithMembersByIds",
+                query = "select distinct t from Team t left join fetch t.members where t.id in :ids"),
+        @NamedQuery(name = "TeamRepositoryImpl.count", query = "select count(t) from Team t")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (리전 설정은 application.conf)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
+    public static final int MEMBERS_BATCH_SIZE = 100;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
+
+    @Version // 낙관적 락 (Member 참고)
+    private Long version;
     private String name;
 
     @OneToMany(mappedBy = "team")
+    @BatchSize(size = MEMBERS_BATCH_SIZE) // 지연 로딩할 때 여러 팀의 회원을 IN 절로 최대 100팀씩 한번에 초기화 (전역 설정은 하지 않는다)
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    /**
+     * [연관관계 편의 메서드]
+     * 연관관계의 주인은 Member.team 이므로 DB 에는 Member.team 만 반영된다.
+     * members 는 이미 로딩된 경우에만 메모리 상태를 맞추고, 로딩되지 않았다면 건드리지 않는다.
+     * (getMembers().add() 는 지연 로딩 컬렉션 전체를 초기화하므로 회원이 많은 팀이면 한명 추가에 전체 회원을 읽는다)
+     * 로딩되지 않은 컬렉션은 나중에 로딩할 때 DB 상태가 반영되므로, 같은 트랜잭션에서 이어서 로딩하려면 먼저 flush 하자.
+     */
+    public void addMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.add(member);
+        }
+    }
+
+    public void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package study.datajpa.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 리포지토리 메서드 실행 중에 나간 SQL 을 그 메서드에 귀속시킨다.
+ * - 스프링 데이터 JPA 리포지토리(프록시) + @Repository 클래스(MemberJpaRepository 등)
+ */
+@Aspect
+@Component
+public class QueryAttributionAspect {
+
+    @Around("target(org.springframework.data.repository.Repository) || @within(org.springframework.stereotype.Repository)")
+    public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryCounter.enterMethod(RepositoryMethodNames.of(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryCounter.exitMethod();
+        }
+    }
+}
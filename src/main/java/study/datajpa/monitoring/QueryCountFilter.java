@@ -0,0 +1,39 @@
+package study.datajpa.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 단위로 SQL 실행 횟수를 센다. (N + 1 경고는 QueryCounter 가 남긴다)
+ */
+@Slf4j
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final int threshold;
+
+    public QueryCountFilter(@Value("${datajpa.query-count.n-plus-one-threshold:10}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.begin(threshold);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter counter = QueryCounter.end();
+            if (log.isDebugEnabled()) {
+                log.debug("{} {} SQL {}건 {}", request.getMethod(), request.getRequestURI(), counter.total(), counter.countByMethod());
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 하이버네이트가 SQL 을 준비(prepare)할 때마다 호출된다. SQL 은 바꾸지 않고 세기만 한다.
+ * (JDBC 배치는 배치 단위로 한번 호출된다)
+ */
+public class QueryCountInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,135 @@
+package study.datajpa.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * [SQL 실행 횟수 측정]
+ * 하나의 작업 단위(요청, 테스트 등) 동안 실행된 SQL 을 스레드 단위로 센다.
+ * - 어떤 리포지토리 메서드가 실행한 SQL 인지 함께 기록 (QueryAttributionAspect)
+ * - 같은 모양(shape)의 SQL 이 threshold 번을 넘게 실행되면 N + 1 로 보고 경고 로그를 남긴다.
+ *   (in 절의 파라미터 개수는 모양에서 제외)
+ *
+ * 사용: QueryCounter.begin() ~ QueryCounter.end() (요청은 QueryCountFilter 가 처리)
+ */
+@Slf4j
+public class QueryCounter {
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<String>> METHODS = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String UNKNOWN_METHOD = "(unknown)";
+
+    private final int threshold;
+    private final Map<String, Integer> countByShape = new LinkedHashMap<>();
+    private final Map<String, Integer> countByMethod = new LinkedHashMap<>();
+    private final List<String> statements = new ArrayList<>();
+    private int total;
+
+    private QueryCounter(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public static QueryCounter begin(int threshold) {
+        QueryCounter counter = new QueryCounter(threshold);
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static QueryCounter end() {
+        QueryCounter counter = CURRENT.get();
+        CURRENT.remove();
+        return counter;
+    }
+
+    /**
+     * 현재 스레드의 작업 단위, 없으면 null
+     */
+    public static QueryCounter current() {
+        return CURRENT.get();
+    }
+
+    static void enterMethod(String method) {
+        Deque<String> methods = METHODS.get();
+        if (methods == null) {
+            methods = new ArrayDeque<>();
+            METHODS.set(methods);
+        }
+        methods.push(method);
+    }
+
+    /**
+     * 가장 바깥 메서드가 끝나면 ThreadLocal 을 비운다. (풀 스레드에 남지 않게)
+     */
+    static void exitMethod() {
+        Deque<String> methods = METHODS.get();
+        methods.pop();
+        if (methods.isEmpty()) {
+            METHODS.remove();
+        }
+    }
+
+    static void record(String sql) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            Deque<String> methods = METHODS.get();
+            String method = methods == null ? null : methods.peek();
+            counter.add(sql, method == null ? UNKNOWN_METHOD : method);
+        }
+    }
+
+    private void add(String sql, String method) {
+        total++;
+        statements.add(sql);
+        countByMethod.merge(method, 1, Integer::sum);
+
+        String shape = shape(sql);
+        int count = countByShape.merge(shape, 1, Integer::sum);
+        if (count == threshold + 1) {
+            log.warn("N + 1 의심: 같은 SQL 이 {}번 넘게 실행됨 (method={}) sql={}", threshold, method, shape);
+        }
+    }
+
+    static String shape(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(normalized).replaceAll("(?)");
+    }
+
+    public int total() {
+        return total;
+    }
+
+    /**
+     * 가장 많이 반복된 SQL 모양의 실행 횟수
+     */
+    public int maxRepeatedShapeCount() {
+        return countByShape.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public Map<String, Integer> countByMethod() {
+        return Collections.unmodifiableMap(countByMethod);
+    }
+
+    public Map<String, Integer> countByShape() {
+        return Collections.unmodifiableMap(countByShape);
+    }
+
+    public List<String> statements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    public void reset() {
+        total = 0;
+        countByShape.clear();
+        countByMethod.clear();
+        statements.clear();
+    }
+}
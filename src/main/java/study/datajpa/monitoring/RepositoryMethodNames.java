@@ -0,0 +1,34 @@
+package study.datajpa.monitoring;
+
+import org.aspectj.lang.JoinPoint;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * 리포지토리 메서드를 "리포지토리 이름.메서드 이름" 으로 표시한다.
+ * 스프링 데이터 JPA 리포지토리는 JDK 프록시이고 findById 같은 공통 메서드는 CrudRepository 에 선언되어 있으므로,
+ * 선언 클래스가 아니라 프록시가 구현한 리포지토리 인터페이스 이름을 사용한다. (MemberRepository.findById)
+ */
+final class RepositoryMethodNames {
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+                return type.getInterfaces()[0].getSimpleName();
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        }
+    };
+
+    private RepositoryMethodNames() {
+    }
+
+    static String of(JoinPoint joinPoint) {
+        return of(joinPoint.getTarget().getClass(), joinPoint.getSignature().getName());
+    }
+
+    static String of(Class<?> targetClass, String methodName) {
+        return REPOSITORY_NAMES.get(targetClass) + "." + methodName;
+    }
+}
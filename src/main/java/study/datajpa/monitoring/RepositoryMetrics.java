@@ -0,0 +1,80 @@
+package study.datajpa.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 메서드별 호출 수, 실패 수, 반환 row 수, 지연시간 히스토그램
+ * 리포지토리 클래스 + 메서드 단위로 한번만 만들고(이름 문자열도 이때만 생성), 이후 호출은 카운터 증가만 한다.
+ */
+@Component
+public class RepositoryMetrics {
+    private final ClassValue<ConcurrentMap<Method, MethodMetrics>> metricsByClass = new ClassValue<ConcurrentMap<Method, MethodMetrics>>() {
+        @Override
+        protected ConcurrentMap<Method, MethodMetrics> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final List<MethodMetrics> all = new CopyOnWriteArrayList<>();
+
+    MethodMetrics get(Class<?> targetClass, Method method) {
+        ConcurrentMap<Method, MethodMetrics> metrics = metricsByClass.get(targetClass);
+        MethodMetrics result = metrics.get(method);
+        if (result != null) {
+            return result;
+        }
+        return metrics.computeIfAbsent(method, m -> {
+            MethodMetrics created = new MethodMetrics(RepositoryMethodNames.of(targetClass, m.getName()));
+            all.add(created);
+            return created;
+        });
+    }
+
+    public List<MethodMetrics> all() {
+        return new ArrayList<>(all);
+    }
+
+    public static class MethodMetrics {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        MethodMetrics(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, long rowCount, boolean error) {
+            latency.record(nanos);
+            if (error) {
+                errors.increment();
+            }
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+    }
+}
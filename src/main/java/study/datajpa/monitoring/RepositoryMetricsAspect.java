@@ -0,0 +1,58 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * 모든 리포지토리 호출의 실행 시간과 반환 row 수를 RepositoryMetrics 에 기록한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    private final RepositoryMetrics repositoryMetrics;
+
+    @Around("target(org.springframework.data.repository.Repository) || @within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryMetrics.MethodMetrics metrics = repositoryMetrics.get(
+                joinPoint.getTarget().getClass(), ((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        Object result = null;
+        boolean error = true;
+        try {
+            result = joinPoint.proceed();
+            error = false;
+            return result;
+        } finally {
+            metrics.record(System.nanoTime() - start, rows(result), error);
+        }
+    }
+
+    /**
+     * 조회 결과 row 수 (Stream, 수정 쿼리의 반환값 등은 세지 않음)
+     */
+    private static long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof BaseStream) {
+            return 0;
+        }
+        return 1;
+    }
+}
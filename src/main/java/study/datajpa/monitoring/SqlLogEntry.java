@@ -0,0 +1,69 @@
+package study.datajpa.monitoring;
+
+import java.time.Instant;
+
+/**
+ * SQL 로그 한 건
+ * 파라미터는 값만 보관하고, 사람이 읽을 SQL 문자열은 조회할 때 만든다. (getSqlWithParameters)
+ */
+public class SqlLogEntry {
+    private final String sql;
+    private final Object[] parameters;
+    private final long elapsedNanos;
+    private final long timestamp;
+    private final String thread;
+
+    SqlLogEntry(String sql, Object[] parameters, long elapsedNanos, long timestamp, String thread) {
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedNanos = elapsedNanos;
+        this.timestamp = timestamp;
+        this.thread = thread;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestamp);
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * ? 자리에 바인딩된 값을 채운 SQL (JDBC 배치는 마지막 row 의 값)
+     */
+    public String getSqlWithParameters() {
+        if (parameters.length == 0) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder(sql.length() + parameters.length * 8);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?' && index < parameters.length) {
+                builder.append(literal(parameters[index++]));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 고정 크기 lock-free 링 버퍼
+ * 쓰기는 시퀀스 증가 + 슬롯 덮어쓰기뿐이라 경합이 있어도 락을 잡지 않는다. 가득 차면 가장 오래된 항목부터 덮어쓴다.
+ */
+class SqlRingBuffer {
+    private final AtomicReferenceArray<SqlLogEntry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+
+    SqlRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // 2의 거듭제곱으로 올림
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void add(SqlLogEntry entry) {
+        slots.lazySet((int) (sequence.getAndIncrement() & mask), entry);
+    }
+
+    /**
+     * 최근 항목부터 반환
+     */
+    List<SqlLogEntry> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<SqlLogEntry> entries = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            SqlLogEntry entry = slots.get((int) (i & mask));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
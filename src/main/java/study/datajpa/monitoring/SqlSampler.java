@@ -0,0 +1,75 @@
+package study.datajpa.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * [샘플링 SQL 로그]
+ * 모든 SQL 을 포맷팅해서 남기는 로그(p6spy, org.hibernate.SQL=debug)와 달리 운영에서 켜둘 수 있도록 메모리 링 버퍼에 일부만 기록한다.
+ * - 커넥션을 꺼낼 때 sample-rate 비율만큼만 샘플링해서 그 커넥션의 SQL 을 모두 기록 (기본 1%, 장애 분석할 땐 /stats/sql/sample-rate 로 1.0 까지 올린다)
+ * - slow-threshold-ms 를 넘는 SQL 은 샘플링과 상관없이 모든 커넥션에서 별도 버퍼에 기록
+ * - 기록하지 않는 SQL 은 실행 시간 비교 외엔 비용이 들지 않고(복사, 문자열 X), 파라미터 문자열은 조회할 때만 만든다.
+ */
+@Component
+public class SqlSampler {
+    private final SqlRingBuffer sampled;
+    private final SqlRingBuffer slow;
+    private final long slowThresholdNanos;
+    private volatile double sampleRate;
+
+    public SqlSampler(@Value("${datajpa.sql-log.sample-rate:0.01}") double sampleRate,
+                      @Value("${datajpa.sql-log.slow-threshold-ms:100}") long slowThresholdMillis,
+                      @Value("${datajpa.sql-log.capacity:1024}") int capacity) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+        this.sampled = new SqlRingBuffer(capacity);
+        this.slow = new SqlRingBuffer(capacity);
+    }
+
+    /**
+     * 커넥션을 꺼낼 때 한번 호출해서 그 커넥션의 SQL 을 기록할지 정한다.
+     */
+    boolean sample() {
+        double rate = sampleRate;
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * 모든 SQL 실행마다 호출된다. isSampled 는 실행한 커넥션이 샘플링되었는지
+     * parameters 는 호출한 쪽에서 재사용하는 배열이므로 기록할 때만 복사한다.
+     */
+    void record(String sql, Object[] parameters, int parameterCount, long elapsedNanos, boolean isSampled) {
+        boolean isSlow = elapsedNanos >= slowThresholdNanos;
+        if (!isSampled && !isSlow) {
+            return;
+        }
+        Object[] copy = new Object[parameterCount];
+        System.arraycopy(parameters, 0, copy, 0, parameterCount);
+        SqlLogEntry entry = new SqlLogEntry(sql, copy, elapsedNanos, System.currentTimeMillis(), Thread.currentThread().getName());
+        if (isSampled) {
+            sampled.add(entry);
+        }
+        if (isSlow) {
+            slow.add(entry);
+        }
+    }
+
+    public List<SqlLogEntry> sampled() {
+        return sampled.snapshot();
+    }
+
+    public List<SqlLogEntry> slow() {
+        return slow.snapshot();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+}
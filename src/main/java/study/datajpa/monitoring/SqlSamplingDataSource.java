@@ -0,0 +1,113 @@
+package study.datajpa.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * SqlSampler 에 SQL 실행 시간과 바인딩 파라미터를 넘겨주는 DataSource
+ * Connection / Statement 를 JDK 프록시로 감싸서 execute* 호출 시간을 재고, set* 호출의 값을 배열에 담아둔다.
+ * - 느린 SQL 은 항상 잡아야 하므로 모든 커넥션을 감싸고 모든 execute* 의 시간을 잰다. (System.nanoTime 두번)
+ * - 샘플링(전체 SQL 링 버퍼 기록) 여부는 커넥션을 꺼낼 때 한번 정한다. (커넥션 = 보통 트랜잭션 하나)
+ */
+public class SqlSamplingDataSource extends DelegatingDataSource {
+    private final SqlSampler sampler;
+
+    public SqlSamplingDataSource(DataSource target, SqlSampler sampler) {
+        super(target);
+        this.sampler = sampler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(), sampler.sample());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password), sampler.sample());
+    }
+
+    private Connection wrap(Connection connection, boolean sampled) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof Statement && (name.startsWith("prepare") || name.equals("createStatement"))) {
+                        String sql = name.startsWith("prepare") ? (String) args[0] : null;
+                        return wrap((Statement) result, sql, sampled);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String sql, boolean sampled) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, sql, sampled));
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final boolean sampled;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+
+        private StatementHandler(Statement target, String sql, boolean sampled) {
+            this.target = target;
+            this.sql = sql;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                long start = System.nanoTime();
+                try {
+                    return SqlSamplingDataSource.invoke(target, method, args);
+                } finally {
+                    if (executed != null) {
+                        sampler.record(executed, parameters, parameterCount, System.nanoTime() - start, sampled);
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+            }
+            return SqlSamplingDataSource.invoke(target, method, args);
+        }
+
+        private void parameter(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
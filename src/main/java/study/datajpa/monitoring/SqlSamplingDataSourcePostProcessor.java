@@ -0,0 +1,29 @@
+package study.datajpa.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 빈을 SqlSamplingDataSource 로 감싼다. (datajpa.sql-log.enabled=false 면 사용 안 함)
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlSamplingDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SqlSampler> sampler;
+
+    public SqlSamplingDataSourcePostProcessor(ObjectProvider<SqlSampler> sampler) {
+        this.sampler = sampler; // BeanPostProcessor 는 먼저 만들어지므로 지연 조회
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof SqlSamplingDataSource)) {
+            return new SqlSamplingDataSource((DataSource) bean, sampler.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * [생성 프로젝션]
+ * 붙인 인터페이스의 구현 클래스(인터페이스 이름 + "_Projection")를 컴파일 시점에 생성한다. (projection-processor)
+ * - getter 하나가 조회 컬럼 하나, 반환 타입이 @GeneratedProjection 인터페이스면 중첩 프로젝션 (ex. team.name)
+ * - 조회 결과 row(Object[])에서 생성자로 바로 값을 채우므로 스프링 데이터 프로젝션처럼 row 마다 프록시 / Map 을 만들지 않는다.
+ * - SpEL(@Value) 을 사용하는 Open Projection 은 지원하지 않는다.
+ *
+ * 사용: ProjectionMapper.of(UsernameOnly.class)
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GeneratedProjection {
+}
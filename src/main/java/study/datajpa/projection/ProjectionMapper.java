@@ -0,0 +1,108 @@
+package study.datajpa.projection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * [생성 프로젝션 매퍼]
+ * 조회 결과 row(Object[]) 를 생성된 프로젝션 구현 클래스로 변환한다. 구현은 애너테이션 프로세서가 생성한다.
+ * - properties: row 의 컬럼 순서대로의 프로퍼티 경로 (ex. "username", "team.name")
+ * - of(Class): 프로젝션 인터페이스 -> 매퍼, 클래스마다 한번만 찾아서 ClassValue 에 캐시한다. (동적 프로젝션에서 호출마다 리플렉션 X)
+ */
+public abstract class ProjectionMapper<T> {
+    private static final String SUFFIX = "_Projection";
+
+    private static final ClassValue<ProjectionMapper<?>> MAPPERS = new ClassValue<ProjectionMapper<?>>() {
+        @Override
+        protected ProjectionMapper<?> computeValue(Class<?> type) {
+            return find(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final List<String> properties;
+
+    protected ProjectionMapper(Class<T> type, String... properties) {
+        this.type = type;
+        this.properties = Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ProjectionMapper<T> of(Class<T> type) {
+        return (ProjectionMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * row[offset] 부터 properties 개수만큼의 컬럼으로 프로젝션 생성
+     */
+    public abstract T map(Object[] row, int offset);
+
+    public T map(Object[] row) {
+        return map(row, 0);
+    }
+
+    /**
+     * 컬럼이 모두 null 이면 null (left join 된 중첩 프로젝션)
+     */
+    public T mapNullable(Object[] row, int offset) {
+        for (int i = 0; i < properties.size(); i++) {
+            if (row[offset + i] != null) {
+                return map(row, offset);
+            }
+        }
+        return null;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * properties 를 조회하는 JPQL select / from 절
+     * 중첩 프로퍼티는 left join 으로 조회한다. ex) select m.username, m_team.name from Member m left join m.team m_team
+     */
+    public String selectFrom(String entityName, String alias) {
+        StringBuilder select = new StringBuilder("select ");
+        Set<String> joins = new LinkedHashSet<>();
+        for (int i = 0; i < properties.size(); i++) {
+            String[] path = properties.get(i).split("\\.");
+            String owner = alias;
+            for (int j = 0; j < path.length - 1; j++) {
+                String joinAlias = owner + "_" + path[j];
+                joins.add(" left join " + owner + "." + path[j] + " " + joinAlias);
+                owner = joinAlias;
+            }
+            if (i > 0) {
+                select.append(", ");
+            }
+            select.append(owner).append('.').append(path[path.length - 1]);
+        }
+        select.append(" from ").append(entityName).append(' ').append(alias);
+        for (String join : joins) {
+            select.append(join);
+        }
+        return select.toString();
+    }
+
+    private static ProjectionMapper<?> find(Class<?> type) {
+        if (!type.isInterface() || !type.isAnnotationPresent(GeneratedProjection.class)) {
+            throw new IllegalArgumentException("@GeneratedProjection 인터페이스가 아닙니다: " + type.getName());
+        }
+        String name = type.getName();
+        String packageName = type.getPackageName();
+        String simpleName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+        String generated = (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + SUFFIX;
+        try {
+            return (ProjectionMapper<?>) Class.forName(generated, true, type.getClassLoader()).getField("MAPPER").get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("생성된 프로젝션 클래스를 찾을 수 없습니다: " + generated + " (projection-processor 설정 확인)", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * [대량 업서트]
+     * 외부에서 식별자를 받은 상품을 한번에 동기화한다. 없는 상품만 insert 하고, 이미 있는 상품은 그대로 둔다.
+     * - save() 는 이미 있는 상품마다 merge(select + update) 를 하지만, 여기서는 JDBC 배치로 배치 크기마다 한번에 처리한다.
+     * - 새로 저장된 상품은 이번 업서트 시각, 이미 있던 상품은 DB 의 등록시간으로 createdDate 를 채운다. (isNew() == false)
+     * 새로 insert 한 상품 수를 반환
+     */
+    int upsertAll(Collection<Item> items);
+}
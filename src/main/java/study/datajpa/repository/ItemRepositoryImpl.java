@@ -0,0 +1,150 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.support.PageCountCache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * [JDBC 배치 업서트]
+ * - H2: MERGE INTO ... USING ... WHEN NOT MATCHED THEN INSERT
+ *  (MERGE INTO ... KEY(id) 는 이미 있는 row 의 created_date 까지 덮어쓰므로 사용하지 않는다)
+ * - PostgreSQL: INSERT ... ON CONFLICT (id) DO NOTHING
+ * 두 방식 모두 row 마다 insert 됐으면 1, 이미 있으면 0 을 반환하므로 배치 결과로 새 상품을 구분한다.
+ */
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+    private static final String H2_UPSERT = "merge into item t" +
+            " using (values (cast(? as varchar), cast(? as timestamp))) s(id, created_date) on t.id = s.id" +
+            " when not matched then insert (id, created_date) values (s.id, s.created_date)";
+    private static final String POSTGRES_UPSERT = "insert into item (id, created_date) values (?, ?) on conflict (id) do nothing";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final PageCountCache pageCountCache;
+    private final int batchSize;
+    private volatile String upsertSql;
+
+    public ItemRepositoryImpl(JdbcTemplate jdbcTemplate, PageCountCache pageCountCache,
+                              @Value("${datajpa.upsert.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.pageCountCache = pageCountCache;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items) {
+        em.flush(); // 영속성 컨텍스트에서 아직 insert 되지 않은 상품을 먼저 반영 (중복 insert 방지)
+
+        LocalDateTime now = AuditClock.now().truncatedTo(ChronoUnit.MICROS); // DB 의 timestamp 정밀도에 맞춘다.
+        String sql = upsertSql();
+        List<Item> chunk = new ArrayList<>(batchSize);
+        int inserted = 0;
+        for (Item item : items) {
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                inserted += upsert(sql, chunk, now);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserted += upsert(sql, chunk, now);
+        }
+        if (inserted > 0) {
+            pageCountCache.evict("item");
+        }
+        return inserted;
+    }
+
+    private int upsert(String sql, List<Item> chunk, LocalDateTime now) {
+        Timestamp createdDate = Timestamp.valueOf(now);
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, chunk.get(i).getId());
+                ps.setTimestamp(2, createdDate);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunk.size();
+            }
+        });
+
+        int inserted = 0;
+        List<Item> existing = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[i] > 0) {
+                chunk.get(i).markPersisted(now);
+                inserted++;
+            } else {
+                existing.add(chunk.get(i)); // 0 또는 SUCCESS_NO_INFO (드라이버가 row 별 결과를 주지 않는 경우)
+            }
+        }
+        if (existing.isEmpty()) {
+            return inserted;
+        }
+
+        // 이미 있던 상품은 DB 의 등록시간으로 채운다. (결과를 모르는 row 는 등록시간이 이번 시각이면 새로 insert 된 것)
+        Map<String, LocalDateTime> createdDates = createdDates(existing);
+        for (int i = 0, e = 0; i < chunk.size(); i++) {
+            if (counts[i] > 0) {
+                continue;
+            }
+            Item item = existing.get(e++);
+            LocalDateTime persisted = createdDates.get(item.getId());
+            item.markPersisted(persisted);
+            if (counts[i] == Statement.SUCCESS_NO_INFO && now.equals(persisted)) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private Map<String, LocalDateTime> createdDates(List<Item> items) {
+        List<String> ids = new ArrayList<>(items.size());
+        for (Item item : items) {
+            ids.add(item.getId());
+        }
+        Map<String, LocalDateTime> result = new HashMap<>();
+        namedJdbcTemplate.query("select id, created_date from item where id in (:ids)",
+                Collections.singletonMap("ids", ids),
+                rs -> {
+                    Timestamp createdDate = rs.getTimestamp("created_date");
+                    result.put(rs.getString("id"), createdDate == null ? null : createdDate.toLocalDateTime());
+                });
+        return result;
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            upsertSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_UPSERT : H2_UPSERT;
+        }
+        return upsertSql;
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * [keyset 페이징 커서]
+ * 마지막으로 조회한 row 의 정렬 키(username) + member_id 를 담는다.
+ * 클라이언트에는 Base64(URL-safe) 로 인코딩한 불투명(opaque) 토큰으로만 노출한다.
+ * - "id:username" 형식, username 이 null 이면 구분자 없이 "id" 만 쓴다. (빈 문자열 "id:" 와 구분)
+ * - username 이 null 인 회원은 맨 앞에 정렬한다. (order by username nulls first)
+ *
+ * offset 방식은 앞 페이지의 row 를 전부 읽고 버리지만,
+ * keyset 방식은 "(username, member_id) 가 커서보다 뒤" 라는 조건으로 바로 다음 윈도우를 읽으므로 페이지 깊이와 상관없이 비용이 일정하다.
+ */
+@Getter
+public class MemberCursor {
+    private static final char SEPARATOR = ':';
+
+    private final String username;
+    private final Long id;
+
+    public MemberCursor(String username, Long id) {
+        this.username = username;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = username == null ? String.valueOf(id) : id + String.valueOf(SEPARATOR) + username;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        String raw;
+        Long id;
+        int idx;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            idx = raw.indexOf(SEPARATOR);
+            // username 에 구분자가 들어가도 되도록 id 를 앞에 둔다.
+            id = Long.valueOf(idx < 0 ? raw : raw.substring(0, idx));
+        } catch (IllegalArgumentException e) { // Base64 디코딩 실패, NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+        return new MemberCursor(idx < 0 ? null : raw.substring(idx + 1), id);
+    }
+}
@@ -8,6 +8,10 @@ import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * [순수 JPA 리포지토리]
+ * JPQL 은 Member 엔티티의 @NamedQuery ("MemberJpaRepository.메서드 이름") 로 선언해서 애플리케이션 로딩 시점에 파싱, 검증한다.
+ */
 @Repository
 public class MemberJpaRepository {
 
@@ -24,7 +28,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findAll(){
-        return em.createQuery("select m from Member m", Member.class).getResultList();
+        return em.createNamedQuery("MemberJpaRepository.findAll", Member.class).getResultList();
     }
 
     public Optional<Member> findById(Long id){
@@ -33,7 +37,7 @@ public class MemberJpaRepository {
     }
 
     public long count(){
-        return em.createQuery("select count(m) from Member m",Long.class).getSingleResult();
+        return em.createNamedQuery("MemberJpaRepository.count", Long.class).getSingleResult();
     }
 
     public Member find(Long id){
@@ -42,30 +46,57 @@ public class MemberJpaRepository {
 
     // 이름과 나이를 기준으로 회원을 조회 (순수 JPA 리포지토리 버전)
     public List<Member> findByUsernameAndAgeGreaterThan(String username, int age){
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age")
+        return em.createNamedQuery("MemberJpaRepository.findByUsernameAndAgeGreaterThan", Member.class)
                 .setParameter("username",username)
                 .setParameter("age", age)
                 .getResultList();
     }
 
     public List<Member> findByPage(int age, int offset, int limit){
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
+        return em.createNamedQuery("MemberJpaRepository.findByPage", Member.class)
                 .setParameter("age",age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    /**
+     * findByPage 의 keyset 버전
+     * - 이전 윈도우의 마지막 (username, id) 를 받아 그 다음부터 limit 개 조회
+     * - offset 만큼 읽고 버리는 비용이 없으므로 페이지가 깊어져도 비용이 일정하다.
+     * - lastId 가 null 이면 첫 윈도우
+     * - username 이 null 인 회원은 맨 뒤에 정렬하고, 마지막 username 이 null 이면 id 로만 이어서 조회한다.
+     */
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit){
+        if (lastId == null) {
+            return em.createNamedQuery("MemberJpaRepository.findByPageFirst", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        if (lastUsername == null) {
+            return em.createNamedQuery("MemberJpaRepository.findByPageAfterNull", Member.class)
+                    .setParameter("age", age)
+                    .setParameter("id", lastId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createNamedQuery("MemberJpaRepository.findByPageAfter", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public long totalCount(int age){
-        return em.createQuery("select count(m) from Member m where m.age = :age",Long.class)
+        return em.createNamedQuery("MemberJpaRepository.totalCount", Long.class)
                 .setParameter("age",age)
                 .getSingleResult();
     }
 
     public int bulkAgePlus(int age){
-        return em.createQuery(
-                "update Member m set m.age = m.age + 1" +
-                        " where m.age >= :age")
+        return em.createNamedQuery("MemberJpaRepository.bulkAgePlus")
                 .setParameter("age",age)
                 .executeUpdate();
     }
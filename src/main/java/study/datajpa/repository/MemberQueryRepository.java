@@ -0,0 +1,80 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
+
+import java.util.List;
+
+/**
+ * [조회 전용 리포지토리 (JdbcTemplate)]
+ * 조회 화면처럼 많은 row 를 읽기만 하는 경우 JPA 를 거치지 않고 JDBC 로 바로 DTO 를 만든다.
+ * - 영속성 컨텍스트, 엔티티 스냅샷, 프로젝션 프록시를 만들지 않는다.
+ * - RowMapper 는 상수로 한번만 만들어 재사용한다.
+ * - 회원이 없는 팀이나 팀이 없는 회원도 나오도록 member 기준 left join (on 절 필수, 없으면 member x team 카테시안 곱)
+ *
+ * 스프링 데이터 JPA 리포지토리와는 별개로 동작하는 일반 스프링 빈이다. (MemberRepositoryImpl 주석 참고)
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberQueryRepository {
+    private static final String SELECT_MEMBER_DTO = "select m.member_id, m.username, t.name as team_name" +
+            " from member m left join team t on m.team_id = t.team_id";
+    private static final String ORDER_BY = " order by m.username nulls first, m.member_id";
+
+    private static final RowMapper<MemberDto> MEMBER_DTO = (rs, rowNum) -> new MemberDto(
+            rs.getLong("member_id"),
+            rs.getString("username"),
+            rs.getString("team_name"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * limit / offset 페이징 (username(null 이 먼저), member_id 순)
+     * offset 이 커질수록 앞의 row 를 읽고 버리므로, 깊은 페이지는 findByCursor 를 사용하자.
+     */
+    public List<MemberDto> findPage(int offset, int limit) {
+        return jdbcTemplate.query(SELECT_MEMBER_DTO + ORDER_BY + " limit ? offset ?",
+                MEMBER_DTO, limit, offset);
+    }
+
+    /**
+     * keyset(커서) 페이징, 커서 형식은 MemberRepository.findMemberDtoByCursor 와 같다.
+     */
+    public CursorPage<MemberDto> findByCursor(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다: " + size);
+        }
+        List<MemberDto> result;
+        if (cursor == null) {
+            result = jdbcTemplate.query(SELECT_MEMBER_DTO + ORDER_BY + " limit ?",
+                    MEMBER_DTO, size + 1);
+        } else {
+            MemberCursor after = MemberCursor.decode(cursor);
+            if (after.getUsername() == null) {
+                result = jdbcTemplate.query(SELECT_MEMBER_DTO +
+                                " where m.username is not null or m.member_id > ?" + ORDER_BY + " limit ?",
+                        MEMBER_DTO, after.getId(), size + 1);
+            } else {
+                result = jdbcTemplate.query(SELECT_MEMBER_DTO +
+                                " where m.username > ? or (m.username = ? and m.member_id > ?)" + ORDER_BY + " limit ?",
+                        MEMBER_DTO, after.getUsername(), after.getUsername(), after.getId(), size + 1);
+            }
+        }
+
+        if (result.size() <= size) {
+            return new CursorPage<>(result, null);
+        }
+        List<MemberDto> content = result.subList(0, size);
+        MemberDto last = content.get(size - 1);
+        return new CursorPage<>(content, new MemberCursor(last.getUsername(), last.getId()).encode());
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -3,15 +3,22 @@ package study.datajpa.repository;
 import study.datajpa.dto.MemberDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import study.datajpa.config.AsyncConfig;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.PageCount;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom { // 제너릭: 엔티티 타입, PK 타입 / 사용자 커스텀 리포지토리 상속
     /**
@@ -33,15 +40,52 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member m where m.username= :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    /**
+     * [쿼리 캐시]
+     * org.hibernate.cacheable 힌트를 준 쿼리는 쿼리 + 파라미터를 키로 결과를 캐시한다. (리전: org.hibernate.cacheRegion)
+     * - 쿼리가 사용하는 테이블(member, team)에 쓰기가 커밋되면 자동으로 무효화된다.
+     *  - 리포지토리를 통한 엔티티 변경뿐 아니라 bulkAgePlus 같은 벌크 JPQL 도 대상 테이블을 무효화한다.
+     *  - 관련 없는 테이블(item 등)의 변경은 영향을 주지 않는다.
+     * - 엔티티 결과는 식별자만 캐시하고 엔티티는 2차 캐시에서 가져온다.
+     * 자주 읽고 거의 바뀌지 않는 쿼리에만 사용하자. (쓰기가 잦으면 무효화 비용만 든다)
+     */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.member")
+    })
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.member")
+    })
     @Query("select new study.datajpa.dto.MemberDto(m.id,m.username,t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    /**
+     * [스트리밍 조회]
+     * - List 로 전부 메모리에 올리지 않고 ScrollableResults(forward-only) 로 한 row 씩 읽는다.
+     * - DTO 로 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+     * - fetchSize 만큼씩 JDBC 드라이버에서 가져온다.
+     * 주의: 트랜잭션 안에서 사용해야 하고, 사용 후 반드시 close 해야 한다. (try-with-resources)
+     */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Stream<MemberDto> streamMemberDto();
+
     /**
      * [컬렉션 파라미터 바인딩]
+     * - 컬렉션 크기가 바뀌면 SQL 도 바뀐다. in_clause_parameter_padding 으로 2의 거듭제곱 개수로 맞춰서 플랜 재사용
+     * - 수천 개 이상이면 findByNamesChunked 사용 (청크 분할 / 배열 파라미터)
      */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.member")
+    })
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
@@ -73,19 +117,32 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     // 쿼리가 복잡할 땐 count 성능을 향상 시키기 위해 count 쿼리를 분리하는 게 좋다.
     // sort도 복잡할 땐 value에 할당한 쿼리에 sort 쿼리도 같이 직접 작성한다.
+    // count 는 결과를 파라미터 별로 캐시 (@PageCount, member 테이블에 쓰기가 커밋되거나 30초가 지나면 다시 계산)
+    @PageCount(strategy = CountStrategy.CACHED, table = "member", ttlSeconds = 30)
     @Query(value = "select m from Member m left join m.team t", countQuery = "select count(m) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
     //Slice<Member> findByAge(int age, Pageable pageable);
 
+    /**
+     * 페이징 + DTO 조회
+     * - 엔티티를 조회한 다음 MemberDto 로 변환하면 row 마다 지연 로딩된 team 을 조회한다. (N + 1)
+     * - select 절에서 바로 DTO 로 조회하면 content 쿼리 1번 + count 쿼리 1번으로 끝난다.
+     * - count 쿼리는 조인 없이 member 만 센다. (left join 이라 결과 건수가 같다)
+     */
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
     /**
      * [벌크성 수정 쿼리]
      * 벌크성 수정, 삭제 쿼리는 @Modifying 어노테이션을 사용해야 함.
      * 벌크 연산은 영속성 컨텍스트를 무시하고 실행하기 때문에, 영속성 컨텍스트에 있는 엔티티의 상태와 DB에 엔티티 상태가 달라질 수 있다.
      * 따라서 한 트랜잭션에서 벌크성 연산 후 데이터를 다시 조회하려면
      * EntityManager 의 clear 메서드나 clearAutomatically = true 옵션으로 벌크성 쿼리를 실행 후 영속성 컨텍스트를 초기화해야 함.
+     * versioned: 벌크 수정도 @Version 을 올려서, 수정 전에 읽은 엔티티로 덮어쓰면 낙관적 락 예외가 나게 한다.
      */
     @Modifying(clearAutomatically = true) // clearAutomatically = true: 벌크 쿼리를 실행하고 나서 영속성 컨텍스트 초기화
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
 
@@ -113,6 +170,24 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph(attributePaths = {"team"})
     List<Member> findByUsername(String username);
 
+    /**
+     * [비동기 조회]
+     * repositoryExecutor 스레드에서 실행하고 결과를 CompletableFuture 로 돌려준다. (요청 스레드는 바로 반환)
+     * - 트랜잭션은 실행 스레드에서 시작하고 끝나므로 반환된 엔티티는 준영속 상태
+     *  -> 지연 로딩이 안되므로 필요한 연관은 @EntityGraph / 페치 조인으로 미리 가져오거나 DTO 로 조회한다.
+     * - 결과가 없으면 null 로 완료된다.
+     */
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    CompletableFuture<Member> findAsyncById(Long id);
+
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @EntityGraph(attributePaths = {"team"})
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @Query("select new study.datajpa.dto.MemberDto(m.id,m.username,t.name) from Member m join m.team t")
+    CompletableFuture<List<MemberDto>> findAsyncMemberDto();
+
     /**
      * [QueryHint}
      */
@@ -161,11 +236,22 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     /**
      * [네이티브 쿼리 Projections 활용]
      * - 정적쿼리의 경우 쓸만하다
+     * - 조회 화면용 대량 조회는 영속성 컨텍스트 / 프록시를 거치지 않는 MemberQueryRepository(JdbcTemplate) 사용
+     * - 조건 없는 전체 목록이므로 count 는 DB 통계의 추정 row 수 사용 (@PageCount, 통계가 없으면 countQuery)
      */
+    @PageCount(strategy = CountStrategy.ESTIMATED, table = "member")
     @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
-    "from member m left join team t",
+    "from member m left join team t on m.team_id = t.team_id",
     countQuery = "select count(*) from member", nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
+
+    /**
+     * [count 없는 페이징 (@PageCount HAS_MORE)]
+     * 다음 페이지 존재 여부만 필요한 화면 (무한 스크롤), limit + 1 로 조회하고 count 는 하지 않는다.
+     */
+    @PageCount(strategy = CountStrategy.HAS_MORE)
+    @Query("select m from Member m where m.age = :age")
+    Slice<Member> findHasMoreByAge(@Param("age") int age, Pageable pageable);
 }
 
 
@@ -1,9 +1,58 @@
 package study.datajpa.repository;
 
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkProgressListener;
+import study.datajpa.repository.support.BulkUpdateResult;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * [keyset(커서) 페이징]
+     * - username(null 이 먼저), member_id 순으로 정렬, cursor 가 null 이면 첫 윈도우
+     * - size 가 1 보다 작으면 IllegalArgumentException
+     * - count 쿼리를 사용하지 않는다.
+     */
+    CursorPage<MemberDto> findMemberDtoByCursor(String cursor, int size);
+
+    /**
+     * [대량 저장]
+     * - hibernate.jdbc.batch_size 단위로 flush / clear 해서 영속성 컨텍스트 크기를 일정하게 유지
+     * - 저장한 회원 수를 반환, 저장 후 회원 엔티티는 준영속 상태가 된다.
+     */
+    int saveAllBatched(Iterable<Member> members);
+
+    /**
+     * [청크 단위 벌크 수정]
+     * bulkAgePlus 와 같은 수정을 member_id 범위(chunkSize) 별로 나눠서 병렬로, 청크마다 커밋하며 실행한다. (BulkUpdateEngine)
+     * - 영속성 컨텍스트를 비우지 않고 수정 범위의 회원만 준영속으로 만들고, 회원 2차 캐시와 member 테이블의 쿼리 캐시를 무효화한다.
+     * - 트랜잭션 밖에서 호출해야 한다.
+     */
+    BulkUpdateResult bulkAgePlusChunked(int age, int chunkSize, BulkProgressListener listener);
+
+    /**
+     * [낙관적 락으로 나이 변경]
+     * 새 트랜잭션에서 회원을 읽어서 나이를 delta 만큼 바꾸고 커밋, 버전 충돌이면 재시도한다. (OptimisticUpdateExecutor)
+     * findLockByUsername(PESSIMISTIC_WRITE) 대신 사용, 변경된 나이를 반환
+     */
+    int addAgeOptimistic(Long memberId, int delta);
+
+    /**
+     * [생성 프로젝션 조회]
+     * findDynamicProjectionsByUsername 과 같지만 type 은 @GeneratedProjection 인터페이스여야 하고,
+     * 프로젝션 프로퍼티 컬럼만 조회해서 컴파일 시점에 생성된 구현 클래스로 바로 변환한다. (row 마다 프록시 생성 X)
+     */
+    <T> List<T> findGeneratedProjectionsByUsername(String username, Class<T> type);
+
+    /**
+     * [대량 컬렉션 IN 조회]
+     * findByNames 와 같지만 컬렉션 크기에 따라 청크로 나누거나 배열 파라미터 조인으로 실행한다. (InClauseExecutor)
+     * - 청크를 병렬로 실행한 경우(트랜잭션 밖) 결과는 준영속 상태
+     */
+    List<Member> findByNamesChunked(Collection<String> names);
 }
@@ -1,10 +1,28 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.projection.ProjectionMapper;
+import study.datajpa.repository.support.BulkProgressListener;
+import study.datajpa.repository.support.BulkUpdate;
+import study.datajpa.repository.support.BulkUpdateEngine;
+import study.datajpa.repository.support.BulkUpdateResult;
+import study.datajpa.repository.support.InClauseExecutor;
+import study.datajpa.repository.support.OptimisticUpdateExecutor;
+import study.datajpa.repository.support.StringArrayType;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,11 +44,137 @@ import java.util.List;
  */
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
+    /**
+     * 프로젝션 타입별 JPQL (타입마다 한번만 만든다)
+     */
+    private static final ClassValue<String> PROJECTION_QUERIES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return ProjectionMapper.of(type).selectFrom("Member", "m") + " where m.username = :username";
+        }
+    };
+
+    private static final String H2_NAMES_ARRAY_QUERY =
+            "select m.* from member m join table(name varchar = :names) n on m.username = n.name";
+    private static final String POSTGRES_NAMES_ARRAY_QUERY = "select m.* from member m where m.username = any(:names)";
+
     @PersistenceContext
     private EntityManager em;
 
+    private final BulkUpdateEngine bulkUpdateEngine;
+    private final OptimisticUpdateExecutor optimisticUpdateExecutor;
+    private final InClauseExecutor inClauseExecutor;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
     @Override
     public List<Member> findMemberCustom() {
-        return em.createQuery("select m from Member m").getResultList();
+        return em.createNamedQuery("MemberRepositoryImpl.findMemberCustom", Member.class).getResultList();
+    }
+
+    @Override
+    public CursorPage<MemberDto> findMemberDtoByCursor(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다: " + size);
+        }
+        TypedQuery<MemberDto> query;
+        if (cursor == null) {
+            query = em.createNamedQuery("MemberRepositoryImpl.findMemberDtoByCursor", MemberDto.class);
+        } else {
+            MemberCursor after = MemberCursor.decode(cursor);
+            if (after.getUsername() == null) { // username 이 null 인 회원 중간 (null 이 맨 앞)
+                query = em.createNamedQuery("MemberRepositoryImpl.findMemberDtoByCursorAfterNull", MemberDto.class)
+                        .setParameter("id", after.getId());
+            } else {
+                query = em.createNamedQuery("MemberRepositoryImpl.findMemberDtoByCursorAfter", MemberDto.class)
+                        .setParameter("username", after.getUsername())
+                        .setParameter("id", after.getId());
+            }
+        }
+
+        // 다음 윈도우 존재 여부를 count 쿼리 없이 확인하기 위해 size + 1 개 조회 (Slice 와 같은 방식)
+        List<MemberDto> result = query.setMaxResults(size + 1).getResultList();
+        if (result.size() <= size) {
+            return new CursorPage<>(result, null);
+        }
+        List<MemberDto> content = result.subList(0, size);
+        MemberDto last = content.get(size - 1);
+        return new CursorPage<>(content, new MemberCursor(last.getUsername(), last.getId()).encode());
+    }
+
+    /**
+     * 사용자 정의 메서드는 SimpleJpaRepository 의 트랜잭션이 적용되지 않으므로 직접 선언한다.
+     *
+     * 식별자는 시퀀스 pooled 옵티마이저로 미리 할당받고(persist 마다 시퀀스 조회 X),
+     * insert 는 hibernate.jdbc.batch_size 단위로 묶여서 나간다. 같은 주기로 clear 해서 수백만 건을 넣어도 메모리가 늘지 않는다.
+     * 연관된 Team 은 이미 저장되어 있어야 한다. (clear 이후엔 식별자만 있으면 외래 키를 채울 수 있다)
+     */
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members) {
+        int count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Override
+    public BulkUpdateResult bulkAgePlusChunked(int age, int chunkSize, BulkProgressListener listener) {
+        BulkUpdate update = new BulkUpdate(Member.class, "age = age + 1, version = version + 1", "age >= ?", age);
+        return bulkUpdateEngine.execute(update, chunkSize, listener);
+    }
+
+    @Override
+    public int addAgeOptimistic(Long memberId, int delta) {
+        return optimisticUpdateExecutor.execute(memberId, () -> {
+            Member member = em.find(Member.class, memberId);
+            member.setAge(member.getAge() + delta);
+            return member.getAge();
+        });
+    }
+
+    @Override
+    public <T> List<T> findGeneratedProjectionsByUsername(String username, Class<T> type) {
+        ProjectionMapper<T> mapper = ProjectionMapper.of(type);
+        List<?> rows = em.createQuery(PROJECTION_QUERIES.get(type))
+                .setParameter("username", username)
+                .getResultList();
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(mapper.map(row instanceof Object[] ? (Object[]) row : new Object[]{row})); // 컬럼이 하나면 배열이 아닌 값 그대로
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByNamesChunked(Collection<String> names) {
+        return inClauseExecutor.execute(names,
+                chunk -> em.createNamedQuery("MemberRepositoryImpl.findByNamesChunked", Member.class)
+                        .setParameter("names", chunk)
+                        .getResultList(),
+                this::findByNamesArray);
+    }
+
+    /**
+     * 이름 전체를 배열 파라미터 하나로 바인딩, 이름이 몇 개든 SQL 이 하나다.
+     * 결과를 Member 엔티티로 매핑하므로 영속성 컨텍스트에 올라가고, member 테이블 변경만 먼저 flush 한다.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Member> findByNamesArray(List<String> names) {
+        boolean postgres = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+        return em.createNativeQuery(postgres ? POSTGRES_NAMES_ARRAY_QUERY : H2_NAMES_ARRAY_QUERY, Member.class)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameter("names", names.toArray(new String[0]), StringArrayType.INSTANCE)
+                .getResultList();
     }
 }
@@ -9,6 +9,10 @@ import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * [순수 JPA 리포지토리]
+ * JPQL 은 Team 엔티티의 @NamedQuery 로 선언 (MemberJpaRepository 참고)
+ */
 @Repository
 public class TeamJpaRepository {
     @PersistenceContext
@@ -24,7 +28,7 @@ public class TeamJpaRepository {
     }
 
     public List<Team> findAll(){
-        return em.createQuery("select t from Team t", Team.class).getResultList();
+        return em.createNamedQuery("TeamJpaRepository.findAll", Team.class).getResultList();
     }
 
     public Optional<Team> findById(Long id){
@@ -33,7 +37,7 @@ public class TeamJpaRepository {
     }
 
     public long count(){
-        return em.createQuery("select count(t) from Team t",Long.class).getSingleResult();
+        return em.createNamedQuery("TeamJpaRepository.count", Long.class).getSingleResult();
     }
 
     public Team find(Long id){
@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * [팀 페이징 + 회원 함께 조회]
+     * 컬렉션을 페치 조인하면서 페이징하면 하이버네이트가 전체 결과를 메모리에 올려서 페이징한다. (HHH000104 경고)
+     * 대신 팀만 DB 에서 페이징하고, 해당 페이지 팀들의 회원을 IN 절 페치 조인으로 한번에(배치 크기 단위로) 초기화한다.
+     * -> 팀 페이지 쿼리 + count 쿼리 + 회원 쿼리 (팀 수 / Team.MEMBERS_BATCH_SIZE) 개
+     */
+    Page<Team> findPageWithMembers(Pageable pageable);
+}
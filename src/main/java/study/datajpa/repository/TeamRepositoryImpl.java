@@ -0,0 +1,50 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * 사용자 정의 메서드는 SimpleJpaRepository 의 트랜잭션이 적용되지 않는다.
+     * 트랜잭션이 없으면 쿼리마다 영속성 컨텍스트가 달라서 페치 조인 결과가 반환할 팀에 반영되지 않으므로 직접 선언한다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Team> findPageWithMembers(Pageable pageable) {
+        // 정렬 조건에 따라 JPQL 이 달라지므로 이름 있는 쿼리로 만들 수 없다.
+        TypedQuery<Team> query = em.createQuery(QueryUtils.applySorting("select t from Team t", pageable.getSort(), "t"), Team.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Team> teams = query.getResultList();
+
+        List<Long> ids = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            ids.add(team.getId());
+        }
+        for (int from = 0; from < ids.size(); from += Team.MEMBERS_BATCH_SIZE) {
+            // 이미 영속성 컨텍스트에 있는 팀 엔티티의 members 컬렉션이 초기화된다. (결과는 사용하지 않음)
+            em.createNamedQuery("TeamRepositoryImpl.findWithMembersByIds", Team.class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + Team.MEMBERS_BATCH_SIZE, ids.size())))
+                    .setHint("hibernate.query.passDistinctThrough", false)
+                    .getResultList();
+        }
+
+        return PageableExecutionUtils.getPage(teams, pageable,
+                () -> em.createNamedQuery("TeamRepositoryImpl.count", Long.class).getSingleResult());
+    }
+}
@@ -1,10 +1,13 @@
 package study.datajpa.repository;
 
 import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.projection.GeneratedProjection;
 
 /**
  * [인터페이스 기반 Projections] 기능을 사용하기 위한 인터페이스
+ * @GeneratedProjection: 구현 클래스(UsernameOnly_Projection)를 컴파일 시점에 생성 (findGeneratedProjectionsByUsername)
  */
+@GeneratedProjection
 public interface UsernameOnly {
 
     /**
@@ -0,0 +1,28 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * [청크 단위 벌크 수정 정의]
+ * update {엔티티 테이블} set {set} where {where} 를 식별자 범위로 나눠서 실행한다.
+ * set, where 는 SQL 조각(컬럼 이름 사용), where 의 ? 에는 parameters 가 순서대로 바인딩된다.
+ *
+ * ex) new BulkUpdate(Member.class, "age = age + 1", "age >= ?", 20)
+ */
+@Getter
+public class BulkUpdate {
+    private final Class<?> entityClass;
+    private final String set;
+    private final String where;
+    private final List<Object> parameters;
+
+    public BulkUpdate(Class<?> entityClass, String set, String where, Object... parameters) {
+        this.entityClass = entityClass;
+        this.set = set;
+        this.where = where;
+        this.parameters = Arrays.asList(parameters);
+    }
+}
@@ -0,0 +1,217 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * [청크 단위 병렬 벌크 수정]
+ * "update member set age = age + 1 where age >= ?" 같은 벌크 수정을 한 트랜잭션으로 실행하면
+ * 테이블 전체를 수정하는 동안 락과 undo 를 잡고 있고, 끝나면 영속성 컨텍스트를 통째로 비워야 한다.
+ *
+ * 대신 다음과 같이 실행한다.
+ * 1. 조건에 맞는 식별자의 min / max 를 구해서 chunkSize 크기의 식별자 범위로 나눈다.
+ * 2. 워커 parallelism 개가 범위를 하나씩 가져가서 각자의 커넥션, 각자의 트랜잭션(REQUIRES_NEW)으로
+ *    범위 안에서 조건에 맞는 식별자를 조회하고, 그 식별자만 update 한 뒤 바로 커밋한다.
+ *  - 식별자 범위로 나눴으므로 한 트랜잭션이 잡는 락은 청크 크기 이하
+ *  - 커밋하면 수정한 식별자의 엔티티만 2차 캐시에서 지운다. (리전 전체를 비우지 않는다)
+ * 3. 테이블의 쿼리 캐시(update timestamps)를 무효화하고, 현재 영속성 컨텍스트에서 수정한 엔티티를 준영속으로 만든다.
+ *
+ * 워커는 전용 스레드 풀에서 실행한다. (repositoryExecutor 를 같이 쓰면 그 풀의 스레드에서 호출했을 때 자기 워커를 기다리며 멈출 수 있다)
+ *
+ * 주의: 청크는 다른 커넥션에서 실행되므로, 호출한 트랜잭션에서 같은 row 를 수정하고 커밋하지 않은 상태라면 락을 기다리다 교착된다.
+ * 트랜잭션 밖에서 호출하거나, 호출 전 변경 사항을 커밋하자.
+ */
+@Slf4j
+@Component
+public class BulkUpdateEngine {
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor;
+    private final PageCountCache pageCountCache;
+    private final int parallelism;
+
+    public BulkUpdateEngine(EntityManagerFactory emf, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            PageCountCache pageCountCache, @Value("${datajpa.bulk.parallelism:4}") int parallelism) {
+        this.emf = emf;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bulk-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        this.pageCountCache = pageCountCache;
+        this.parallelism = parallelism;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public BulkUpdateResult execute(BulkUpdate update, int chunkSize, BulkProgressListener listener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 는 0 보다 커야 합니다: " + chunkSize);
+        }
+        long start = System.currentTimeMillis();
+        AbstractEntityPersister persister = (AbstractEntityPersister) emf.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(update.getEntityClass());
+        String table = persister.getTableName();
+        String idColumn = persister.getIdentifierColumnNames()[0];
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "select min(" + idColumn + ") lo, max(" + idColumn + ") hi from " + table + " where " + update.getWhere(),
+                update.getParameters().toArray());
+        if (range.get("lo") == null) {
+            return new BulkUpdateResult(0, 0, 0, System.currentTimeMillis() - start);
+        }
+        long lo = ((Number) range.get("lo")).longValue();
+        long hi = ((Number) range.get("hi")).longValue();
+        long totalChunks = (hi - lo) / chunkSize + 1;
+
+        String select = "select " + idColumn + " from " + table
+                + " where " + idColumn + " between ? and ? and (" + update.getWhere() + ")";
+        String sql = "update " + table + " set " + update.getSet()
+                + " where " + idColumn + " in (%s) and (" + update.getWhere() + ")";
+        Cache cache = emf.unwrap(SessionFactoryImplementor.class).getCache();
+        Set<Long> updatedIds = ConcurrentHashMap.newKeySet();
+
+        AtomicLong nextStart = new AtomicLong(lo);
+        AtomicLong completedChunks = new AtomicLong();
+        AtomicLong affectedRows = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        int workers = (int) Math.min(parallelism, totalChunks);
+        CountDownLatch done = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                try {
+                    long from;
+                    while (failure.get() == null && (from = nextStart.getAndAdd(chunkSize)) <= hi) {
+                        Object[] args = chunkArgs(from, Math.min(from + chunkSize - 1, hi), update.getParameters());
+                        List<Long> ids = new ArrayList<>();
+                        Integer rows = chunkTransaction.execute(status -> {
+                            ids.addAll(jdbcTemplate.queryForList(select, Long.class, args));
+                            if (ids.isEmpty()) {
+                                return 0;
+                            }
+                            // 조회한 식별자만 수정해서, 그 사이 조건에 새로 맞게 된 row 가 캐시 무효화 없이 수정되지 않게 한다.
+                            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+                            return jdbcTemplate.update(String.format(sql, placeholders), updateArgs(ids, update.getParameters()));
+                        });
+                        for (Long id : ids) {
+                            cache.evictEntityData(update.getEntityClass(), id); // 커밋 후
+                        }
+                        updatedIds.addAll(ids);
+                        listener.onProgress(completedChunks.incrementAndGet(), totalChunks, affectedRows.addAndGet(rows));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+
+        evict(persister, updatedIds);
+        BulkUpdateResult result = new BulkUpdateResult(totalChunks, completedChunks.get(), affectedRows.get(), System.currentTimeMillis() - start);
+        if (failure.get() != null) {
+            throw new BulkUpdateException(result, failure.get());
+        }
+        log.debug("bulk update {}: {}", table, result);
+        return result;
+    }
+
+    private static Object[] updateArgs(List<Long> ids, List<Object> parameters) {
+        Object[] args = new Object[ids.size() + parameters.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            args[i] = ids.get(i);
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            args[ids.size() + i] = parameters.get(i);
+        }
+        return args;
+    }
+
+    private static Object[] chunkArgs(long from, long to, List<Object> parameters) {
+        Object[] args = new Object[parameters.size() + 2];
+        args[0] = from;
+        args[1] = to;
+        for (int i = 0; i < parameters.size(); i++) {
+            args[i + 2] = parameters.get(i);
+        }
+        return args;
+    }
+
+    /**
+     * JDBC 로 직접 수정했으므로 하이버네이트가 캐시를 무효화하지 못한다. (엔티티 2차 캐시는 청크마다 수정한 식별자만 지웠다)
+     * - 쿼리 캐시: 테이블의 update timestamp 를 갱신해서, 이 테이블을 읽는 캐시된 쿼리 결과를 모든 리전에서 무효화
+     * - 현재 영속성 컨텍스트: 수정한 엔티티만 준영속으로 만든다. (em.clear() 처럼 다른 엔티티까지 비우지 않는다)
+     */
+    private void evict(AbstractEntityPersister persister, Set<Long> updatedIds) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+
+        Serializable[] querySpaces = persister.getQuerySpaces();
+        String[] spaces = new String[querySpaces.length];
+        for (int i = 0; i < querySpaces.length; i++) {
+            spaces[i] = querySpaces[i].toString();
+        }
+        if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            try (Session session = sessionFactory.openSession()) {
+                sessionFactory.getCache().getTimestampsCache().invalidate(spaces, (SharedSessionContractImplementor) session);
+            }
+        }
+
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (em != null) {
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            List<Object> detached = new ArrayList<>();
+            for (Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+                EntityEntry entityEntry = entry.getValue();
+                if (entityEntry.getPersister() == persister && entityEntry.getId() instanceof Number
+                        && updatedIds.contains(((Number) entityEntry.getId()).longValue())) {
+                    detached.add(entry.getKey()); // 다음 조회 때 DB 에서 다시 읽는다.
+                }
+            }
+            detached.forEach(em::detach);
+        }
+        pageCountCache.evict(persister.getTableName());
+    }
+}
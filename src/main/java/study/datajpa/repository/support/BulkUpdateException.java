@@ -0,0 +1,17 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+/**
+ * 청크 실행 중 실패, 청크마다 커밋하므로 partialResult 까지는 반영된 상태다.
+ * 그대로 다시 실행하면 커밋된 청크도 다시 수정되므로, 재실행이 필요한 작업은 where 조건으로 처리된 row 를 제외하자.
+ */
+@Getter
+public class BulkUpdateException extends RuntimeException {
+    private final BulkUpdateResult partialResult;
+
+    public BulkUpdateException(BulkUpdateResult partialResult, Throwable cause) {
+        super("벌크 수정 실패 (" + partialResult.getCompletedChunks() + "/" + partialResult.getTotalChunks() + " 청크 커밋됨)", cause);
+        this.partialResult = partialResult;
+    }
+}
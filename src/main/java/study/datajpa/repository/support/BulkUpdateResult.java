@@ -0,0 +1,27 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 벌크 수정 결과, 실패한 경우에도 이미 커밋된 청크까지의 결과를 담는다.
+ */
+@Getter
+@ToString
+public class BulkUpdateResult {
+    private final long totalChunks;
+    private final long completedChunks;
+    private final long affectedRows;
+    private final long elapsedMillis;
+
+    public BulkUpdateResult(long totalChunks, long completedChunks, long affectedRows, long elapsedMillis) {
+        this.totalChunks = totalChunks;
+        this.completedChunks = completedChunks;
+        this.affectedRows = affectedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isCompleted() {
+        return completedChunks == totalChunks;
+    }
+}
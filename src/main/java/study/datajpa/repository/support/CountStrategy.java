@@ -0,0 +1,25 @@
+package study.datajpa.repository.support;
+
+/**
+ * [페이징 count 전략]
+ * 데이터가 많은 테이블에선 count 쿼리가 데이터를 조회하는 쿼리보다 더 비쌀 수 있다.
+ * 화면 요구사항에 맞게 메서드 별로 선택해서 사용한다. (@PageCount)
+ */
+public enum CountStrategy {
+    /**
+     * 매번 countQuery 실행 (Page 와 동일)
+     */
+    EXACT,
+    /**
+     * countQuery 결과를 쿼리 + 파라미터 단위로 캐시, ttl 이 지나거나 대상 테이블에 쓰기가 발생하면 다시 계산
+     */
+    CACHED,
+    /**
+     * DB 통계 정보의 추정 row 수 사용 (where 조건이 없는 전체 목록에 적합)
+     */
+    ESTIMATED,
+    /**
+     * count 하지 않고 다음 페이지 존재 여부만 확인 (Slice 반환 메서드)
+     */
+    HAS_MORE
+}
@@ -0,0 +1,103 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * [IN 절 컬렉션 파라미터 실행]
+ * "where x in :keys" 에 크기가 제각각인 컬렉션을 바인딩하면 크기마다 다른 SQL 이 만들어져서
+ * 쿼리 플랜 캐시(하이버네이트, DB 모두)가 계속 바뀌고, 너무 크면 DB 의 파라미터 개수 제한을 넘는다.
+ *
+ * 키 개수(중복 제거 후)에 따라 다음과 같이 실행한다.
+ * - chunkSize 이하: 한번에 IN 쿼리 (hibernate.query.in_clause_parameter_padding 으로 파라미터 수가 2의 거듭제곱으로 맞춰진다)
+ * - arrayThreshold 이하: chunkSize 씩 나눠서 IN 쿼리 후 결과를 합친다.
+ *  - 트랜잭션 밖에서 호출하면 청크를 전용 스레드 풀(parallelism)에서 병렬로, 청크마다 읽기 전용 트랜잭션으로 실행한다. (결과는 준영속)
+ *    repositoryExecutor 를 같이 쓰면 그 풀의 스레드에서 호출했을 때 자기 청크를 기다리며 풀이 고갈될 수 있다.
+ *    청크 안에서 다시 호출하면 트랜잭션 안이므로 아래처럼 순서대로 실행되어 전용 풀도 자기 자신을 기다리지 않는다.
+ *  - 트랜잭션 안에서는 같은 영속성 컨텍스트에서 순서대로 실행한다. (커밋 전 변경 사항이 보이고 결과는 영속 상태)
+ * - arrayThreshold 초과: 키를 배열 파라미터 하나로 넘기는 쿼리 (arrayQuery) 한번, SQL 이 키 개수와 상관없이 하나다.
+ */
+@Component
+public class InClauseExecutor {
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int arrayThreshold;
+
+    public InClauseExecutor(PlatformTransactionManager transactionManager,
+                            @Value("${datajpa.in-clause.chunk-size:512}") int chunkSize,
+                            @Value("${datajpa.in-clause.array-threshold:5000}") int arrayThreshold,
+                            @Value("${datajpa.in-clause.parallelism:4}") int parallelism) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 는 0 보다 커야 합니다: " + chunkSize);
+        }
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setReadOnly(true);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("in-clause-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        // 패딩된 마지막 청크가 chunkSize 를 넘지 않도록 2의 거듭제곱으로 내림
+        this.chunkSize = Integer.highestOneBit(chunkSize);
+        this.arrayThreshold = arrayThreshold;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public <K, R> List<R> execute(Collection<K> keys, Function<List<K>, List<R>> inQuery, Function<List<K>, List<R>> arrayQuery) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinct.isEmpty()) {
+            return new ArrayList<>(); // "in ()" 는 문법 오류
+        }
+        if (distinct.size() > arrayThreshold) {
+            return arrayQuery.apply(distinct);
+        }
+        if (distinct.size() <= chunkSize) {
+            return inQuery.apply(distinct);
+        }
+
+        List<List<K>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+
+        List<R> result = new ArrayList<>();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (List<K> chunk : chunks) {
+                result.addAll(inQuery.apply(chunk));
+            }
+            return result;
+        }
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(chunks.size());
+        for (List<K> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> chunkTransaction.execute(status -> inQuery.apply(chunk)), executor));
+        }
+        try {
+            for (CompletableFuture<List<R>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * [낙관적 락 + 재시도]
+ * 비관적 락(PESSIMISTIC_WRITE, select ... for update)은 같은 row 를 수정하려는 트랜잭션들이 DB 에서 줄을 서고,
+ * 기다리는 동안에도 커넥션을 하나씩 잡고 있다.
+ *
+ * 여기서는 @Version 으로 충돌을 커밋 시점에 감지하고, 충돌하면 새 트랜잭션에서 다시 읽어서 재시도한다.
+ * - 재시도 간격은 지수적으로 늘리되 상한을 두고, 동시에 다시 부딪히지 않도록 지터(0 ~ 간격 사이 임의 값)를 준다.
+ * - 같은 키(회원 id)의 작업은 JVM 안에서 락 스트라이핑으로 먼저 줄을 세운다.
+ *   같은 노드의 작업끼리는 DB 에서 충돌하지 않고, 기다리는 동안 커넥션도 잡지 않는다. (다른 노드와의 충돌만 재시도로 처리)
+ *
+ * 작업은 항상 새 트랜잭션(REQUIRES_NEW)에서 실행되므로, 바깥 트랜잭션의 영속성 컨텍스트와 무관하게 최신 상태를 읽는다.
+ */
+@Slf4j
+@Component
+public class OptimisticUpdateExecutor {
+    private final TransactionTemplate transaction;
+    private final ReentrantLock[] stripes;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicLong retries = new AtomicLong();
+
+    public OptimisticUpdateExecutor(PlatformTransactionManager transactionManager,
+                                    @Value("${datajpa.optimistic.stripes:64}") int stripes,
+                                    @Value("${datajpa.optimistic.max-attempts:5}") int maxAttempts,
+                                    @Value("${datajpa.optimistic.backoff-millis:10}") long backoffMillis,
+                                    @Value("${datajpa.optimistic.max-backoff-millis:200}") long maxBackoffMillis) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * key 로 줄을 세워서 work 를 새 트랜잭션에서 실행, 버전 충돌이면 maxAttempts 까지 재시도
+     * 재시도해도 충돌하면 마지막 OptimisticLockingFailureException 을 던진다.
+     */
+    public <T> T execute(Object key, Supplier<T> work) {
+        ReentrantLock lock = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        for (int attempt = 1; ; attempt++) {
+            lock.lock();
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.debug("optimistic lock conflict: key={}, attempt={}", key, attempt);
+            } finally {
+                lock.unlock();
+            }
+            sleep(backoff(attempt)); // 락을 놓고 기다린다.
+        }
+    }
+
+    /**
+     * 기동 후 버전 충돌로 재시도한 횟수
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트", e);
+        }
+    }
+}
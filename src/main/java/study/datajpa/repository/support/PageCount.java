@@ -0,0 +1,35 @@
+package study.datajpa.repository.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * [페이징 count 전략 선택]
+ * Page 를 반환하는 리포지토리 메서드에 붙이면 선택한 전략으로 전체 건수를 구한다. (PageCountInterceptor)
+ * - EXACT: 스프링 데이터 JPA 기본 동작 (countQuery 실행)
+ * - CACHED, ESTIMATED: 스프링 데이터 JPA 가 count 쿼리 없이 Slice 처럼 조회(limit + 1)하고, 전체 건수는 전략으로 채워서 Page 로 반환한다.
+ * - HAS_MORE: count 가 필요 없는 화면, Slice 를 반환하는 메서드에 붙여서 의도를 표시한다.
+ *
+ * - count 에는 @Query 의 countQuery 를 사용 (CACHED 는 필수, ESTIMATED 는 통계가 없을 때 사용)
+ * - table: 캐시 무효화 대상 테이블이자 ESTIMATED 에서 통계를 조회할 테이블
+ *
+ * 사용 예)
+ * <pre>
+ * &#64;PageCount(strategy = CountStrategy.CACHED, table = "member", ttlSeconds = 30)
+ * &#64;Query(value = "select m from Member m where m.age = :age", countQuery = "select count(m) from Member m where m.age = :age")
+ * Page&lt;Member&gt; findByAge(@Param("age") int age, Pageable pageable);
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PageCount {
+    CountStrategy strategy() default CountStrategy.EXACT;
+
+    String table() default "";
+
+    long ttlSeconds() default 60;
+}
@@ -0,0 +1,65 @@
+package study.datajpa.repository.support;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * [count 결과 캐시]
+ * - key: count 쿼리 + 바인딩 파라미터
+ * - 테이블 별 세대(generation) 번호를 두고, 쓰기가 발생하면 세대를 올려서 이전 세대의 캐시를 무효화한다.
+ *   (count 를 계산하는 도중에 쓰기가 발생해도 이전 세대 값으로 저장되므로 다음 조회에서 버려진다)
+ */
+@Component
+public class PageCountCache {
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final ConcurrentMap<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public long get(String table, List<Object> key, long ttlMillis, LongSupplier counter) {
+        long generation = generation(table).get();
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.generation == generation && entry.expiresAt > now) {
+            return entry.count;
+        }
+
+        long count = counter.getAsLong();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+        }
+        entries.put(key, new Entry(count, generation, now + ttlMillis));
+        return count;
+    }
+
+    public void evict(String table) {
+        generation(table).incrementAndGet();
+    }
+
+    public void evictAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+    }
+
+    private AtomicLong generation(String table) {
+        return generations.computeIfAbsent(table.toLowerCase(), t -> new AtomicLong());
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long generation;
+        private final long expiresAt;
+
+        private Entry(long count, long generation, long expiresAt) {
+            this.count = count;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * [리포지토리 프록시의 @PageCount 처리]
+ * 스프링 데이터 JPA 리포지토리 프록시 안쪽(트랜잭션 안, 쿼리 실행 바로 바깥)에서 동작한다. (PageCountRepositoryCustomizer 에서 등록)
+ * - CACHED, ESTIMATED: Slice 로 실행된 결과(PageCountQueryMethodFactory)에 전체 건수를 채워서 Page 로 반환
+ * - @Modifying: 벌크성 수정 쿼리는 엔티티 이벤트가 발생하지 않으므로 실행 후 count 캐시를 전부 비운다.
+ *
+ * 대상 메서드는 프록시를 만들 때 한번만 찾아둔다.
+ */
+public class PageCountInterceptor implements MethodInterceptor {
+    private final Map<Method, PageCountMethod> countedMethods = new HashMap<>();
+    private final Set<Method> modifyingMethods = new HashSet<>();
+    private final ObjectProvider<PageCounter> pageCounter;
+
+    public PageCountInterceptor(RepositoryInformation information, ObjectProvider<PageCounter> pageCounter) {
+        this.pageCounter = pageCounter;
+        for (Method method : information.getQueryMethods()) {
+            if (PageCountQueryMethodFactory.countedByStrategy(method)) {
+                countedMethods.put(method, new PageCountMethod(method));
+            }
+            if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class)) {
+                modifyingMethods.add(method);
+            }
+        }
+    }
+
+    public boolean hasTargets() {
+        return !countedMethods.isEmpty() || !modifyingMethods.isEmpty();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Method method = invocation.getMethod();
+        if (modifyingMethods.contains(method)) {
+            pageCounter.getObject().evictAll();
+            return result;
+        }
+        PageCountMethod counted = countedMethods.get(method);
+        if (counted == null || !(result instanceof Slice) || result instanceof Page) {
+            return result;
+        }
+        return pageCounter.getObject().toPage(counted, invocation.getArguments(), (Slice<?>) result);
+    }
+}
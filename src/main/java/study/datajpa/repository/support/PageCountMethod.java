@@ -0,0 +1,97 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * @PageCount 메서드의 count 정보 (리포지토리 프록시를 만들 때 메서드마다 한번만 분석)
+ */
+@Getter
+class PageCountMethod {
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Method method;
+    private final PageCount pageCount;
+    private final String countQuery;
+    private final boolean nativeQuery;
+    /**
+     * 파라미터 별 바인딩 이름(JPQL) 또는 위치(네이티브 쿼리), Pageable / Sort 와 countQuery 에 없는 JPQL 파라미터는 null
+     */
+    private final Object[] bindings;
+
+    PageCountMethod(Method method) {
+        this.method = method;
+        this.pageCount = AnnotatedElementUtils.findMergedAnnotation(method, PageCount.class);
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        this.countQuery = query == null ? "" : query.countQuery();
+        this.nativeQuery = query != null && query.nativeQuery();
+        if (pageCount.strategy() == CountStrategy.CACHED && !StringUtils.hasText(countQuery)) {
+            throw new IllegalStateException("@PageCount(CACHED) 를 사용하려면 @Query 의 countQuery 가 필요합니다: " + method);
+        }
+        if (!StringUtils.hasText(pageCount.table())) {
+            throw new IllegalStateException("@PageCount(" + pageCount.strategy() + ") 는 table 이 필요합니다: " + method);
+        }
+
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        Class<?>[] types = method.getParameterTypes();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        this.bindings = new Object[types.length];
+        int position = 1;
+        for (int i = 0; i < types.length; i++) {
+            if (Pageable.class.isAssignableFrom(types[i]) || Sort.class.isAssignableFrom(types[i])) {
+                continue;
+            }
+            if (nativeQuery) {
+                bindings[i] = position++;
+                continue;
+            }
+            // 본문 쿼리에서만 쓰는 파라미터를 바인딩하면 count 쿼리에서 파라미터를 찾지 못해 실패한다.
+            String name = parameterName(annotations[i], names == null ? null : names[i]);
+            bindings[i] = name != null && usesParameter(countQuery, name) ? name : null;
+        }
+    }
+
+    private static boolean usesParameter(String query, String name) {
+        return Pattern.compile(":" + Pattern.quote(name) + "(?![\\w$])").matcher(query).find();
+    }
+
+    boolean hasCountQuery() {
+        return StringUtils.hasText(countQuery);
+    }
+
+    /**
+     * [이름1(위치1), 값1, 이름2(위치2), 값2 ...] (CACHED 의 캐시 키로도 사용)
+     */
+    List<Object> bindParameters(Object[] args) {
+        List<Object> params = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (bindings[i] != null) {
+                params.add(bindings[i]);
+                params.add(args[i]);
+            }
+        }
+        return params;
+    }
+
+    private static String parameterName(Annotation[] annotations, String discovered) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Param) {
+                return ((Param) annotation).value();
+            }
+        }
+        return discovered;
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.repository.support;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.provider.QueryExtractor;
+import org.springframework.data.jpa.repository.query.JpaQueryMethod;
+import org.springframework.data.jpa.repository.query.JpaQueryMethodFactory;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+
+import java.lang.reflect.Method;
+
+/**
+ * [count 전략 메서드를 Slice 로 실행]
+ * CACHED, ESTIMATED 전략의 Page 메서드는 스프링 데이터 JPA 가 Page 가 아닌 Slice 쿼리로 실행하도록 한다.
+ * (limit + 1 로 조회하고 countQuery 는 실행하지 않음, 전체 건수는 PageCountInterceptor 가 채운다)
+ */
+public class PageCountQueryMethodFactory implements JpaQueryMethodFactory {
+    private final QueryExtractor extractor;
+
+    public PageCountQueryMethodFactory(QueryExtractor extractor) {
+        this.extractor = extractor;
+    }
+
+    @Override
+    public JpaQueryMethod build(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
+        return new PageCountQueryMethod(method, metadata, factory, extractor);
+    }
+
+    static boolean countedByStrategy(Method method) {
+        PageCount pageCount = AnnotatedElementUtils.findMergedAnnotation(method, PageCount.class);
+        return pageCount != null
+                && (pageCount.strategy() == CountStrategy.CACHED || pageCount.strategy() == CountStrategy.ESTIMATED);
+    }
+
+    private static class PageCountQueryMethod extends JpaQueryMethod {
+        // 상위 생성자에서 isPageQuery() 를 호출할 땐 아직 false (원래 검증 그대로)
+        private final boolean countedByStrategy;
+
+        private PageCountQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, QueryExtractor extractor) {
+            super(method, metadata, factory, extractor);
+            this.countedByStrategy = countedByStrategy(method);
+        }
+
+        /**
+         * Page 쿼리가 아니면 QueryMethod.isSliceQuery() 가 true 가 된다. (Page 는 Slice 의 하위 타입)
+         */
+        @Override
+        public boolean isPageQuery() {
+            return !countedByStrategy && super.isPageQuery();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.jpa.provider.PersistenceProvider;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * [@PageCount 등록]
+ * 스프링 데이터 JPA 리포지토리 팩토리에 다음을 등록한다.
+ * - PageCountQueryMethodFactory: count 전략 메서드를 Slice 쿼리로 실행
+ * - PageCountInterceptor: 리포지토리 프록시 안쪽에서 Slice 를 Page 로 변환
+ *
+ * 바깥쪽 AOP 프록시에서는 바꿀 수 없다. (Page 를 반환하는 메서드가 Slice 를 돌려주면 리포지토리 프록시에서 ClassCastException)
+ */
+@Component
+public class PageCountRepositoryCustomizer implements BeanPostProcessor {
+    private final ObjectProvider<PageCounter> pageCounter;
+
+    public PageCountRepositoryCustomizer(ObjectProvider<PageCounter> pageCounter) {
+        this.pageCounter = pageCounter;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof JpaRepositoryFactoryBean) {
+            ((JpaRepositoryFactoryBean<?, ?, ?>) bean).addRepositoryFactoryCustomizer(this::customize);
+        }
+        return bean;
+    }
+
+    private void customize(RepositoryFactorySupport factory) {
+        ((JpaRepositoryFactory) factory).setQueryMethodFactory(new PageCountQueryMethodFactory(PersistenceProvider.HIBERNATE));
+        factory.addRepositoryProxyPostProcessor((proxyFactory, information) -> {
+            PageCountInterceptor interceptor = new PageCountInterceptor(information, pageCounter);
+            if (interceptor.hasTargets()) {
+                proxyFactory.addAdvice(interceptor);
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [count 전략 적용]
+ * count 쿼리 없이 조회한 Slice 에 @PageCount 전략으로 전체 건수를 채워서 Page 로 만든다. (PageCountInterceptor 에서 호출)
+ * 마지막 페이지는 offset + 조회 건수로 전체 건수를 알 수 있으므로 count 하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PageCounter {
+    private static final String H2_ESTIMATE_QUERY =
+            "select row_count_estimate from information_schema.tables where lower(table_name) = lower(?1)";
+    private static final String POSTGRES_ESTIMATE_QUERY =
+            "select cast(reltuples as bigint) from pg_class where relname = lower(?1)"; // analyze 전이면 -1
+
+    private final PageCountCache pageCountCache;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * DB 통계를 조회할 수 없는 DB 면 null (ESTIMATED 는 countQuery 로 정확히 센다)
+     */
+    private String estimateQuery;
+
+    @PostConstruct
+    public void init() {
+        Dialect dialect = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect instanceof H2Dialect) {
+            estimateQuery = H2_ESTIMATE_QUERY;
+        } else if (dialect instanceof PostgreSQL81Dialect) {
+            estimateQuery = POSTGRES_ESTIMATE_QUERY;
+        }
+    }
+
+    public Page<?> toPage(PageCountMethod method, Object[] args, Slice<?> slice) {
+        Pageable pageable = slice.getPageable();
+        long total = pageable.isPaged() && !slice.hasNext()
+                ? pageable.getOffset() + slice.getNumberOfElements() // 마지막 페이지면 count 쿼리 없이 계산 가능
+                : count(method, args);
+        if (pageable.isPaged()) {
+            // 추정치가 실제보다 작더라도 현재 페이지와 다음 페이지 존재 여부는 맞춰준다.
+            total = Math.max(total, pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0));
+        }
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    public void evictAll() {
+        pageCountCache.evictAll();
+    }
+
+    private long count(PageCountMethod method, Object[] args) {
+        PageCount pageCount = method.getPageCount();
+        List<Object> params = method.bindParameters(args);
+        if (pageCount.strategy() == CountStrategy.ESTIMATED) {
+            Long estimate = estimate(pageCount.table());
+            if (estimate != null) {
+                return estimate;
+            }
+            if (!method.hasCountQuery()) {
+                throw new IllegalStateException("DB 통계를 사용할 수 없어 countQuery 가 필요합니다: " + method.getMethod());
+            }
+            return exactCount(method, params);
+        }
+
+        List<Object> key = new ArrayList<>(params.size() + 1);
+        key.add(method.getCountQuery());
+        key.addAll(params);
+        return pageCountCache.get(pageCount.table(), key, pageCount.ttlSeconds() * 1000, () -> exactCount(method, params));
+    }
+
+    private Long estimate(String table) {
+        if (estimateQuery == null) {
+            return null;
+        }
+        List<?> result = em.createNativeQuery(estimateQuery).setParameter(1, table).getResultList();
+        if (result.isEmpty() || result.get(0) == null || ((Number) result.get(0)).longValue() < 0) {
+            return null;
+        }
+        return ((Number) result.get(0)).longValue();
+    }
+
+    private long exactCount(PageCountMethod method, List<Object> params) {
+        javax.persistence.Query query = method.isNativeQuery()
+                ? em.createNativeQuery(method.getCountQuery())
+                : em.createQuery(method.getCountQuery());
+        for (int i = 0; i < params.size(); i += 2) {
+            Object name = params.get(i);
+            if (name instanceof Integer) {
+                query.setParameter((Integer) name, params.get(i + 1));
+            } else {
+                query.setParameter((String) name, params.get(i + 1));
+            }
+        }
+        return ((Number) query.getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.repository.support;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.CustomType;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * [문자열 배열 파라미터 타입]
+ * 하이버네이트 5 는 String[] 을 SQL ARRAY 로 바인딩하지 못하므로 네이티브 쿼리 파라미터 바인딩용으로 사용한다.
+ * - NativeQuery.setParameter("names", array, StringArrayType.INSTANCE)
+ * - Connection.createArrayOf 로 바인딩 (H2: table(x varchar = ?), PostgreSQL: = any(?))
+ */
+public class StringArrayType implements UserType {
+    public static final CustomType INSTANCE = new CustomType(new StringArrayType());
+
+    private static final String ELEMENT_TYPE = "varchar";
+
+    @Override
+    public int[] sqlTypes() {
+        return new int[]{Types.ARRAY};
+    }
+
+    @Override
+    public Class<?> returnedClass() {
+        return String[].class;
+    }
+
+    @Override
+    public boolean equals(Object x, Object y) {
+        return Arrays.equals((String[]) x, (String[]) y);
+    }
+
+    @Override
+    public int hashCode(Object x) {
+        return Arrays.hashCode((String[]) x);
+    }
+
+    @Override
+    public Object nullSafeGet(ResultSet rs, String[] names, SharedSessionContractImplementor session, Object owner) throws SQLException {
+        Array array = rs.getArray(names[0]);
+        if (array == null) {
+            return null;
+        }
+        Object[] values = (Object[]) array.getArray();
+        return Arrays.copyOf(values, values.length, String[].class);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Object value, int index, SharedSessionContractImplementor session) throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.ARRAY);
+        } else {
+            st.setArray(index, st.getConnection().createArrayOf(ELEMENT_TYPE, (String[]) value));
+        }
+    }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : ((String[]) value).clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(Object value) {
+        return (Serializable) deepCopy(value);
+    }
+
+    @Override
+    public Object assemble(Serializable cached, Object owner) {
+        return deepCopy(cached);
+    }
+
+    @Override
+    public Object replace(Object original, Object target, Object owner) {
+        return deepCopy(original);
+    }
+}
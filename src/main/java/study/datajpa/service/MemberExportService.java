@@ -0,0 +1,66 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.stream.Stream;
+
+/**
+ * [전체 회원 내보내기]
+ * 스트림으로 한 row 씩 읽어서 바로 writer 에 쓰므로 회원 수와 상관없이 힙 사용량이 일정하다.
+ * 스트림 조회는 트랜잭션이 필요하므로 읽기 전용 트랜잭션 안에서 스트림을 끝까지 소비하고 닫는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * csv 면 헤더 + "id,username,teamName", 아니면 NDJSON (한 줄에 MemberDto JSON 하나)
+     * 내보낸 회원 수를 반환한다.
+     */
+    @Transactional(readOnly = true)
+    public int export(boolean csv, Writer writer) throws IOException {
+        if (csv) {
+            writer.write("id,username,teamName\n");
+        }
+        int count = 0;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            for (MemberDto dto : (Iterable<MemberDto>) stream::iterator) {
+                if (csv) {
+                    writer.write(dto.getId() + "," + csvValue(dto.getUsername()) + "," + csvValue(dto.getTeamName()) + "\n");
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush(); // 응답 버퍼에 쌓아두지 않고 클라이언트로 바로 내보낸다.
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * RFC 4180: 구분자, 따옴표, 줄바꿈(\r, \n)이 들어간 값은 따옴표로 감싸고 따옴표는 두번 쓴다.
+     */
+    static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class QueryPlanWarmupTest {
+    @Autowired QueryPlanWarmup queryPlanWarmup;
+
+    @Test
+    public void parsedOnStartup() {
+        // 엔티티 @NamedQuery 16개 + 리포지토리 @Query, 실패하면 컨텍스트 로딩이 실패한다.
+        assertThat(queryPlanWarmup.getParsedQueries())
+                .hasSizeGreaterThanOrEqualTo(16)
+                .contains("select m from Member m where m.age = :age order by m.username desc", // MemberJpaRepository.findByPage
+                        "select count(t) from Team t", // TeamJpaRepository.count
+                        "select m from Member m where m.username in :names") // MemberRepository.findByNames
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void warmUp() {
+        // 기본은 꺼져 있음 (datajpa.warmup.iterations: 0)
+        assertThat(queryPlanWarmup.getWarmedMethods()).isEmpty();
+
+        queryPlanWarmup.warmUp(1);
+
+        assertThat(queryPlanWarmup.getWarmedMethods())
+                .contains("MemberRepository.findByUsername", // 메서드 이름 쿼리
+                        "MemberRepository.findByAge") // @Query + 페이징
+                .doesNotContain("MemberRepository.bulkAgePlus", // 수정 쿼리
+                        "MemberRepository.streamMemberDto", // 스트림
+                        "MemberRepository.findDynamicProjectionsByUsername"); // Class 파라미터
+        assertThat(queryPlanWarmup.getWarmedNamedQueries())
+                .contains("MemberJpaRepository.findByPage", "MemberRepositoryImpl.findMemberDtoByCursorAfter", "TeamJpaRepository.count")
+                .doesNotContain("MemberJpaRepository.bulkAgePlus");
+        assertThat(queryPlanWarmup.getFailed()).isZero();
+    }
+}
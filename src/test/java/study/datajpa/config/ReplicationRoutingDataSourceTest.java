@@ -0,0 +1,88 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 임베디드 H2 두 개(primary, replica)로 라우팅을 확인한다.
+ */
+class ReplicationRoutingDataSourceTest {
+    DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", "");
+    DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+    }
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        Fixture fixture = new Fixture(List.of(replica));
+
+        assertThat(fixture.databaseName(true)).isEqualToIgnoringCase("replica");
+        assertThat(fixture.databaseName(false)).isEqualToIgnoringCase("primary");
+        assertThat(fixture.jdbcTemplate.queryForObject("select database()", String.class)).isEqualToIgnoringCase("primary"); // 트랜잭션 없음
+    }
+
+    @Test
+    public void readYourWrites() {
+        Fixture fixture = new Fixture(List.of(replica));
+        ReadYourWrites.begin();
+
+        assertThat(fixture.databaseName(true)).isEqualToIgnoringCase("replica");
+        fixture.databaseName(false); // 쓰기 트랜잭션
+        assertThat(fixture.databaseName(true)).isEqualToIgnoringCase("primary"); // 같은 요청 안에서는 primary 에서 읽는다.
+    }
+
+    @Test
+    public void fallbackToPrimaryWhenReplicaIsDown() {
+        DataSource broken = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("replica down");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                throw new SQLException("replica down");
+            }
+        };
+        Fixture fixture = new Fixture(List.of(broken, replica));
+
+        assertThat(fixture.databaseName(true)).isEqualToIgnoringCase("replica");
+        assertThat(fixture.databaseName(true)).isEqualToIgnoringCase("replica"); // 장애 레플리카는 제외됨
+
+        Fixture allDown = new Fixture(List.of(broken));
+        assertThat(allDown.databaseName(true)).isEqualToIgnoringCase("primary");
+    }
+
+    private class Fixture {
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate transactionTemplate;
+
+        Fixture(List<DataSource> replicas) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicationRoutingDataSource(
+                    primary, replicas, ReplicationRoutingDataSource.SelectionPolicy.ROUND_ROBIN, 60_000));
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        String databaseName(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+        }
+    }
+}
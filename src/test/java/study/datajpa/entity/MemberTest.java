@@ -1,16 +1,22 @@
 package study.datajpa.entity;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.audit.AuditClock;
 import study.datajpa.repository.MemberRepository;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +30,8 @@ class MemberTest {
 
     @Autowired
     MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
     @Test
     public void testEntity(){
         Team teamA = new Team("teamA");
@@ -77,4 +85,53 @@ class MemberTest {
        System.out.println("findMember = " + findMember.getLastModifiedDate());
    }
 
-}
\ No newline at end of file
+   @Test
+   public void auditPerFlush() {
+       //given
+       Member member1 = memberRepository.save(new Member("audit1"));
+       Member member2 = memberRepository.save(new Member("audit2"));
+       em.flush();
+
+       //then: 같은 트랜잭션은 같은 등록자, 같은 flush 는 같은 시각
+       assertEquals(member1.getCreatBy(), member2.getCreatBy());
+       assertEquals(member1.getCreatedDate(), member2.getCreatedDate());
+   }
+
+   @Test
+   public void auditClockBoundToTransaction() throws Exception {
+       //given
+       LocalDateTime outer = AuditClock.now();
+       TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+       requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+       Thread.sleep(2);
+
+       //when
+       LocalDateTime inner = requiresNew.execute(status -> AuditClock.now());
+
+       //then: 안쪽 트랜잭션은 자기 시각, 끝나면 바깥 트랜잭션의 시각으로 돌아온다.
+       assertNotEquals(outer, inner);
+       assertEquals(outer, AuditClock.now());
+   }
+
+   @Test
+   public void changeTeamWithoutLoadingMembers() {
+       //given
+       Team team = new Team("lazyTeam");
+       em.persist(team);
+       em.persist(new Member("lazy1", 10, team));
+       em.flush();
+       em.clear();
+
+       //when
+       Team findTeam = em.find(Team.class, team.getId());
+       Member member = new Member("lazy2", 20, findTeam);
+       em.persist(member);
+
+       //then
+       assertFalse(Hibernate.isInitialized(findTeam.getMembers())); // 회원 컬렉션을 로딩하지 않는다.
+       em.flush();
+       em.clear();
+       assertEquals(2, em.find(Team.class, team.getId()).getMembers().size());
+   }
+
+}
@@ -0,0 +1,31 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void bucketBounds() {
+        for (long value : new long[]{0, 1, 15, 16, 31, 32, 1_000, 123_456, 10_000_000_000L}) {
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.index(value));
+            assertThat(lower).isLessThanOrEqualTo(value);
+            assertThat(value - lower).isLessThanOrEqualTo(value / 16); // 상대 오차 1/16 이내
+        }
+    }
+
+    @Test
+    public void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L); // 1ms ~ 100ms
+        }
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.meanMillis()).isEqualTo(50.5);
+        assertThat(histogram.maxMillis()).isEqualTo(100.0);
+        assertThat(histogram.percentileMillis(50)).isCloseTo(50.0, within(50.0 / 16));
+        assertThat(histogram.percentileMillis(99)).isCloseTo(99.0, within(99.0 / 16));
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ItemRepositoryTest {
+    @Autowired ItemRepository itemRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void upsertAll() {
+        //given
+        List<Item> first = Arrays.asList(new Item("A"), new Item("B"));
+        assertThat(itemRepository.upsertAll(first)).isEqualTo(2);
+        LocalDateTime createdA = first.get(0).getCreatedDate();
+
+        //when: A 는 이미 있고 C 만 새 상품
+        List<Item> second = Arrays.asList(new Item("A"), new Item("C"));
+        int inserted = itemRepository.upsertAll(second);
+
+        //then
+        assertThat(inserted).isEqualTo(1);
+        assertThat(second).noneMatch(Item::isNew);
+        assertThat(second.get(0).getCreatedDate()).isEqualTo(createdA); // 기존 등록시간 유지
+        assertThat(itemRepository.count()).isEqualTo(3);
+        assertThat(em.find(Item.class, "C").getCreatedDate()).isEqualTo(second.get(1).getCreatedDate());
+    }
+}
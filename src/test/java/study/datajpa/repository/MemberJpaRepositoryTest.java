@@ -1,13 +1,20 @@
 package study.datajpa.repository;
 
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -18,6 +25,20 @@ import static org.assertj.core.api.Assertions.*;
 class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    EntityManager em;
+
+    /**
+     * 다른 테스트가 커밋한 회원이 남아 있으면 페이징 결과가 실행 순서에 따라 달라지므로 테스트마다 회원 테이블을 비운다.
+     */
+    @BeforeEach
+    public void clearMembers() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> em.createQuery("delete from Member m").executeUpdate());
+    }
 
     @Test
     public void testMember(){
@@ -96,6 +117,49 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    public void keysetPaging(){
+        //given
+        memberJpaRepository.save(new Member("member1",10));
+        memberJpaRepository.save(new Member("member2",10));
+        memberJpaRepository.save(new Member("member3",10));
+        memberJpaRepository.save(new Member("member4",10));
+        memberJpaRepository.save(new Member("member5",10));
+
+        //when
+        List<Member> first = memberJpaRepository.findByPageAfter(10, null, null, 3);
+        Member last = first.get(first.size() - 1);
+        List<Member> second = memberJpaRepository.findByPageAfter(10, last.getUsername(), last.getId(), 3);
+
+        //then
+        assertThat(first).extracting("username").containsExactly("member5", "member4", "member3");
+        assertThat(second).extracting("username").containsExactly("member2", "member1");
+    }
+
+    @Test
+    @Rollback // username 이 null 인 회원을 남기지 않는다.
+    public void keysetPagingWithNullUsername(){
+        //given: username 이 null 인 회원은 맨 뒤, 윈도우 경계에 null 이 걸리도록
+        memberJpaRepository.save(new Member("member1",10));
+        memberJpaRepository.save(new Member("member2",10));
+        memberJpaRepository.save(new Member(null,10));
+        memberJpaRepository.save(new Member(null,10));
+        memberJpaRepository.save(new Member(null,10));
+
+        //when: 끝까지 조회
+        List<Member> all = new ArrayList<>();
+        List<Member> window = memberJpaRepository.findByPageAfter(10, null, null, 3);
+        while (!window.isEmpty()) {
+            all.addAll(window);
+            Member last = window.get(window.size() - 1);
+            window = memberJpaRepository.findByPageAfter(10, last.getUsername(), last.getId(), 3);
+        }
+
+        //then: 반복 / 누락 없이 5명
+        assertThat(all).extracting("username").containsExactly("member2", "member1", null, null, null);
+        assertThat(all).extracting("id").doesNotHaveDuplicates();
+    }
+
     @Test
     public void bulkUpdate(){
         //given
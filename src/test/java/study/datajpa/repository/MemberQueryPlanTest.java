@@ -0,0 +1,144 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.support.QueryCountExtension;
+
+import javax.persistence.NamedQuery;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.datajpa.support.QueryPlans.assertUsesIndex;
+
+/**
+ * 리포지토리 쿼리가 Member 에 선언한 인덱스를 사용하는지 실행 계획으로 검증 (인덱스를 바꾸거나 쿼리를 바꾸면 여기서 깨진다)
+ * 새 쿼리 메서드 / @NamedQuery 는 CHECKED 에 넣고 검증하거나, 인덱스가 필요 없는 이유와 함께 NOT_CHECKED 에 넣어야 한다. (allQueriesCovered)
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class MemberQueryPlanTest {
+    private static final String USERNAME_AGE = "idx_member_username_age";
+    private static final String AGE_USERNAME = "idx_member_age_username";
+    private static final String TEAM = "idx_member_team_id";
+
+    /**
+     * 아래 테스트에서 실행 계획을 검증하는 쿼리 메서드 / @NamedQuery
+     */
+    private static final Set<String> CHECKED = Set.of(
+            "findByUsername", "findListByUsername", "findMemberByUsername", "findOptionalByUsername", "findUser",
+            "findByUsernameAndAgeGreaterThan", "findReadOnlyByUsername", "findLockByUsername", "findByNativeQuery",
+            "findProjectionsByUsername", "findDynamicProjectionsByUsername", "findByNames", "findHasMoreByAge",
+            "MemberJpaRepository.findByUsernameAndAgeGreaterThan", "MemberJpaRepository.findByPage",
+            "MemberJpaRepository.findByPageFirst", "MemberJpaRepository.findByPageAfter", "MemberJpaRepository.findByPageAfterNull",
+            "MemberJpaRepository.totalCount", "MemberRepositoryImpl.findMemberDtoByCursorAfter", "MemberRepositoryImpl.findByNamesChunked");
+
+    /**
+     * 실행 계획을 검증하지 않는 쿼리와 이유
+     */
+    private static final Map<String, String> NOT_CHECKED = new HashMap<>();
+
+    static {
+        for (String name : Arrays.asList("findAll", "findUsernameList", "findMemberDto", "streamMemberDto", "findAsyncMemberDto",
+                "findMemberDtoPage", "findMemberFetchJoin", "findMemberEntityGraph", "findByNativeProjection",
+                "MemberJpaRepository.findAll", "MemberJpaRepository.count", "MemberRepositoryImpl.findMemberCustom")) {
+            NOT_CHECKED.put(name, "조건 없는 전체 조회 / count");
+        }
+        NOT_CHECKED.put("findByAge", "예제 그대로 age 조건이 없는 전체 페이징 (countQuery 도 전체 count)");
+        NOT_CHECKED.put("findAsyncById", "식별자 조회 (기본 키)");
+        NOT_CHECKED.put("findAsyncByUsername", "findByUsername 과 같은 쿼리, 다른 스레드에서 실행되어 QueryCounter 로 수집할 수 없다");
+        NOT_CHECKED.put("bulkAgePlus", "수정 쿼리");
+        NOT_CHECKED.put("MemberJpaRepository.bulkAgePlus", "수정 쿼리");
+        NOT_CHECKED.put("MemberRepositoryImpl.findMemberDtoByCursor", "조건 없는 첫 윈도우");
+        NOT_CHECKED.put("MemberRepositoryImpl.findMemberDtoByCursorAfterNull", "username 이 null 인 회원 중간에서 이어갈 때만 (드묾)");
+    }
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void setUp() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            members.add(new Member("plan" + i, i % 20));
+        }
+        memberRepository.saveAllBatched(members);
+    }
+
+    @Test
+    public void usernameQueries(QueryCounter counter) {
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findListByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findUser("plan1", 1));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findByUsernameAndAgeGreaterThan("plan1", 0));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findReadOnlyByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findLockByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findByNativeQuery("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberJpaRepository.findByUsernameAndAgeGreaterThan("plan1", 0));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findMemberByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findOptionalByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findProjectionsByUsername("plan1"));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findDynamicProjectionsByUsername("plan1", UsernameOnly.class));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findByNames(Arrays.asList("plan1", "plan2")));
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findByNamesChunked(Arrays.asList("plan1", "plan2")));
+    }
+
+    @Test
+    public void cursorQueries(QueryCounter counter) {
+        String cursor = new MemberCursor("plan1", 1L).encode(); // findMemberDtoByCursorAfter
+        assertUsesIndex(jdbcTemplate, counter, "member", USERNAME_AGE, () -> memberRepository.findMemberDtoByCursor(cursor, 10));
+    }
+
+    @Test
+    public void ageQueries(QueryCounter counter) {
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberJpaRepository.findByPage(1, 0, 10));
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberJpaRepository.findByPageAfter(1, null, null, 10));
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberJpaRepository.findByPageAfter(1, "plan5", 5L, 10));
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberJpaRepository.findByPageAfter(1, null, 5L, 10));
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberJpaRepository.totalCount(1));
+        assertUsesIndex(jdbcTemplate, counter, "member", AGE_USERNAME, () -> memberRepository.findHasMoreByAge(1, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void teamQueries(QueryCounter counter) {
+        Team team = teamRepository.save(new Team("planTeam"));
+        memberRepository.save(new Member("planTeamMember", 1, team));
+        assertUsesIndex(jdbcTemplate, counter, "member", TEAM, () -> teamRepository.findPageWithMembers(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void allQueriesCovered() {
+        List<String> queries = new ArrayList<>();
+        for (Method method : new Repositories(applicationContext).getRequiredRepositoryInformation(Member.class).getQueryMethods()) {
+            queries.add(method.getName());
+        }
+        for (NamedQuery namedQuery : Member.class.getAnnotationsByType(NamedQuery.class)) {
+            queries.add(namedQuery.name());
+        }
+
+        assertThat(queries).isNotEmpty()
+                .allSatisfy(query -> assertThat(CHECKED.contains(query) || NOT_CHECKED.containsKey(query))
+                        .as("실행 계획 검증 대상이 아닙니다: %s (CHECKED 또는 NOT_CHECKED 에 추가)", query)
+                        .isTrue());
+    }
+}
@@ -0,0 +1,87 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberQueryRepositoryTest {
+    @Autowired MemberQueryRepository memberQueryRepository;
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void findByCursor() {
+        //given
+        Team team = new Team("reportTeam");
+        em.persist(team);
+        em.persist(new Member("report1", 10, team));
+        em.persist(new Member("report2", 20, team));
+        em.persist(new Member("report3", 30)); // 팀 없음
+        em.flush(); // JdbcTemplate 은 같은 트랜잭션(커넥션)에서 조회
+
+        //when: 전체를 커서로 끝까지 조회
+        List<MemberDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MemberDto> page = memberQueryRepository.findByCursor(cursor, 7);
+            all.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        //then: 중복 / 누락 없이 회원 수만큼 (카테시안 곱 X)
+        Set<Long> ids = new HashSet<>();
+        all.forEach(dto -> ids.add(dto.getId()));
+        assertThat(all).hasSize((int) memberQueryRepository.count());
+        assertThat(ids).hasSize(all.size());
+        assertThat(all).filteredOn(dto -> dto.getUsername().startsWith("report"))
+                .extracting(MemberDto::getTeamName)
+                .containsExactly("reportTeam", "reportTeam", null);
+    }
+
+    @Test
+    public void findPage() {
+        em.persist(new Member("reportPage", 10));
+        em.flush();
+
+        List<MemberDto> page = memberQueryRepository.findPage(0, 5);
+
+        assertThat(page).hasSizeLessThanOrEqualTo(5).isNotEmpty();
+    }
+
+    @Test
+    public void nativeProjectionJoin() {
+        Team team = new Team("nativeTeam");
+        em.persist(team);
+        em.persist(new Member("native1", 10, team));
+        em.persist(new Member("native2", 10));
+        em.flush();
+
+        Page<MemberProjection> page = memberRepository.findByNativeProjection(PageRequest.of(0, 2000));
+
+        //then: 회원 수 = 결과 수, 중복 없음 (카테시안 곱 X)
+        // ESTIMATED 카운트는 마지막 페이지에서 offset + content 크기라 getTotalElements 와 비교하면 항상 같다. 별도 count 로 비교
+        assertThat(page.getContent()).hasSize((int) memberQueryRepository.count());
+        assertThat(page.getContent()).extracting(MemberProjection::getId).doesNotHaveDuplicates();
+        assertThat(page.getContent()).filteredOn(projection -> projection.getUsername() != null && projection.getUsername().startsWith("native"))
+                .extracting(MemberProjection::getTeamName)
+                .containsExactlyInAnyOrder("nativeTeam", null);
+    }
+}
@@ -1,34 +1,78 @@
 package study.datajpa.repository;
 
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.repository.support.BulkUpdateResult;
+import study.datajpa.repository.support.OptimisticUpdateExecutor;
+import study.datajpa.repository.support.PageCounter;
+import study.datajpa.support.QueryBudget;
+import study.datajpa.support.QueryCountExtension;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @Transactional
 @Rollback(false)
+@ExtendWith(QueryCountExtension.class)
 class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;// 스프링 데이터 JPA가 구현체를 생성
     @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired OptimisticUpdateExecutor optimisticUpdateExecutor;
+    @Autowired PageCounter pageCounter;
     @PersistenceContext EntityManager em;
 
+    /**
+     * 클래스 전체가 @Rollback(false) 라 다른 테스트가 커밋한 회원이 남아 있으므로, 테스트마다 회원 테이블을 비운다.
+     * JPQL 벌크 삭제라 회원 2차 캐시 / 쿼리 캐시도 무효화된다. (count 캐시는 직접 비움)
+     */
+    @BeforeEach
+    public void clearMembers() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> em.createQuery("delete from Member m").executeUpdate());
+        pageCounter.evictAll();
+    }
+
     @Test
     public void testMember(){
         Member member = new Member("memberA");
@@ -161,6 +205,51 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void memberDtoPaging(){
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("member1",10, team));
+        memberRepository.save(new Member("member2",10, team));
+        memberRepository.save(new Member("member3",10));
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(0,2, Sort.by(Sort.Direction.ASC,"username"));
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(pageRequest);
+
+        //then
+        assertThat(page.getContent()).extracting("teamName").containsExactly("teamA", "teamA");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    public void pagingWithCachedCount(){
+        //given
+        memberRepository.save(new Member("member1",33));
+        memberRepository.save(new Member("member2",33));
+        memberRepository.save(new Member("member3",33));
+        em.flush();
+
+        PageRequest pageRequest = PageRequest.of(0,2, Sort.by(Sort.Direction.DESC,"username"));
+
+        //when
+        Page<Member> page = memberRepository.findByAge(33, pageRequest); // CACHED: count 캐시
+        Page<Member> cached = memberRepository.findByAge(33, pageRequest);
+        Slice<Member> hasMore = memberRepository.findHasMoreByAge(33, pageRequest);
+
+        //then
+        assertThat(page.getContent()).extracting(Member::getUsername).containsExactly("member3", "member2");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(cached.getTotalElements()).isEqualTo(3);
+        assertThat(hasMore).isNotInstanceOf(Page.class);
+        assertThat(hasMore.hasNext()).isTrue();
+    }
+
     @Test
     public void bulkUpdate(){
         //given
@@ -179,6 +268,22 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    public void bulkUpdateIncrementsVersion(){
+        //given
+        Member member = memberRepository.save(new Member("versioned", 20));
+        em.flush();
+        long version = member.getVersion();
+
+        //when
+        memberRepository.bulkAgePlus(20);
+
+        //then: 버전이 올라가므로 벌크 수정 전에 읽은 엔티티로는 덮어쓸 수 없다. (낙관적 락)
+        Member updated = memberRepository.findById(member.getId()).get();
+        assertThat(updated.getAge()).isEqualTo(21);
+        assertThat(updated.getVersion()).isEqualTo(version + 1);
+    }
+
     @Test
     public void queryHint(){
         Member member1 = new Member("member1", 10);
@@ -235,4 +340,342 @@ class MemberRepositoryTest {
         }
         assertThat(result.size()).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cursorPaging(){
+        //given
+        memberRepository.save(new Member("member1",10));
+        memberRepository.save(new Member("member2",10));
+        memberRepository.save(new Member("member3",10));
+        memberRepository.save(new Member("member4",10));
+        memberRepository.save(new Member("member5",10));
+
+        //when
+        CursorPage<MemberDto> first = memberRepository.findMemberDtoByCursor(null, 3);
+        CursorPage<MemberDto> second = memberRepository.findMemberDtoByCursor(first.getNextCursor(), 3);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("member4", "member5");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    @Rollback // username 이 null 인 회원을 남기지 않는다.
+    public void cursorPagingWithNullUsername(){
+        //given
+        Member nullName1 = memberRepository.save(new Member(null, 10));
+        Member nullName2 = memberRepository.save(new Member(null, 10));
+        memberRepository.save(new Member("", 10));
+
+        //when: 커서가 null username 을 가리키도록 한건씩 끝까지 조회
+        List<MemberDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MemberDto> page = memberRepository.findMemberDtoByCursor(cursor, 1);
+            all.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        //then: null 이 맨 앞, 중복 / 누락 없음
+        assertThat(all).extracting(MemberDto::getId).startsWith(nullName1.getId(), nullName2.getId()).doesNotHaveDuplicates();
+        assertThat(all).hasSize((int) memberRepository.count());
+        assertThat(MemberCursor.decode(new MemberCursor(null, 1L).encode()).getUsername()).isNull();
+        assertThat(MemberCursor.decode(new MemberCursor("", 1L).encode()).getUsername()).isEmpty();
+        Assertions.assertThatThrownBy(() -> memberRepository.findMemberDtoByCursor(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void saveAllBatched(){
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i, team));
+        }
+
+        //when
+        int savedCount = memberRepository.saveAllBatched(members);
+
+        //then
+        assertThat(savedCount).isEqualTo(250);
+        assertThat(em.contains(members.get(0))).isFalse(); // 배치 단위로 clear 되어 준영속 상태
+        assertThat(memberRepository.findById(members.get(249).getId())).isPresent();
+    }
+
+    @Test
+    public void streamMemberDto(){
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("stream1", 10, team));
+        memberRepository.save(new Member("stream2", 20));
+        em.flush();
+        em.clear();
+
+        //when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            result = stream.filter(dto -> dto.getUsername().startsWith("stream")).collect(Collectors.toList());
+        }
+
+        //then
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("stream1", "stream2");
+        assertThat(result).extracting("teamName").containsExactlyInAnyOrder("teamA", null);
+    }
+
+    @Test
+    public void secondLevelCache(){
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        teamRepository.findById(team.getId()); // DB 조회 후 2차 캐시에 저장
+        em.clear();
+        long hitCount = statistics.getSecondLevelCacheHitCount();
+
+        //when
+        Team findTeam = teamRepository.findById(team.getId()).get(); // 영속성 컨텍스트를 비웠지만 2차 캐시에서 조회
+
+        //then
+        assertThat(findTeam.getName()).isEqualTo("teamA");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @Test
+    public void queryCache(){
+        //given
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        memberRepository.findUsernameList(); // 쿼리 실행 후 결과를 쿼리 캐시에 저장
+        long hitCount = statistics.getQueryCacheHitCount();
+
+        //when
+        memberRepository.findUsernameList();
+
+        //then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @Test
+    @QueryBudget(2) // content 쿼리 + count 쿼리
+    public void memberDtoPagingQueryBudget(QueryCounter queryCounter){
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("member1",10, team));
+        memberRepository.save(new Member("member2",10, team));
+        memberRepository.save(new Member("member3",10, team));
+        em.flush();
+        em.clear();
+        queryCounter.reset();
+
+        //when
+        memberRepository.findMemberDtoPage(PageRequest.of(0, 2));
+    }
+
+    @Test
+    public void detectNPlusOne(QueryCounter queryCounter){
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("member" + i, 77, team));
+        }
+        em.flush();
+        em.clear();
+        queryCounter.reset();
+
+        //when
+        List<MemberDto> result = memberRepository.findHasMoreByAge(77, PageRequest.of(0, 3)).map(MemberDto::new).getContent(); // 팀 지연 로딩
+
+        //then
+        assertThat(result).hasSize(3);
+        assertThat(queryCounter.countByMethod()).containsKey("MemberRepository.findHasMoreByAge");
+        assertThat(queryCounter.maxRepeatedShapeCount()).isGreaterThanOrEqualTo(3); // 팀 조회 쿼리가 회원 수만큼 반복
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 비동기 조회는 다른 스레드(다른 트랜잭션)에서 실행되므로 데이터를 먼저 커밋
+    public void findAsync() throws Exception {
+        //given
+        memberRepository.save(new Member("asyncUser", 10));
+        String caller = Thread.currentThread().getName();
+
+        //when
+        List<Member> result = memberRepository.findAsyncByUsername("asyncUser")
+                .thenApply(members -> {
+                    assertThat(Thread.currentThread().getName()).isNotEqualTo(caller);
+                    return members;
+                })
+                .get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(result).extracting("username").contains("asyncUser");
+        assertThat(em.contains(result.get(0))).isFalse(); // 현재 영속성 컨텍스트와 무관한 준영속 엔티티
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 청크는 다른 커넥션에서 실행되므로 데이터를 먼저 커밋
+    public void bulkAgePlusChunked(){
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("bulk" + i, 5000 + i));
+        }
+        memberRepository.saveAll(members);
+        memberRepository.findByNames(Arrays.asList("bulk0")); // 쿼리 캐시에 수정 전 결과 저장
+
+        //when
+        AtomicLong lastProgress = new AtomicLong();
+        BulkUpdateResult result = memberRepository.bulkAgePlusChunked(5000, 3, (completed, total, rows) -> lastProgress.accumulateAndGet(rows, Math::max));
+
+        //then
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getAffectedRows()).isEqualTo(10);
+        assertThat(lastProgress.get()).isEqualTo(10);
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(5001);
+        assertThat(memberRepository.findByNames(Arrays.asList("bulk0")).get(0).getAge()).isEqualTo(5001); // 쿼리 캐시 무효화
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 스레드마다 각자 트랜잭션을 커밋
+    public void optimisticAndPessimisticUpdate() throws Exception {
+        //given
+        Member optimistic = memberRepository.save(new Member("hotOptimistic", 0));
+        memberRepository.save(new Member("hotPessimistic", 0));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int threads = 8;
+        int updates = 25;
+
+        //when
+        runConcurrently(threads, updates, () -> memberRepository.addAgeOptimistic(optimistic.getId(), 1));
+        runConcurrently(threads, updates, () -> transaction.executeWithoutResult(status -> {
+            Member member = memberRepository.findLockByUsername("hotPessimistic").get(0); // select ... for update
+            member.setAge(member.getAge() + 1);
+        }));
+
+        //then: 두 방식 모두 갱신 손실이 없어야 한다. (처리량 비교는 src/jmh 의 OptimisticUpdateBenchmark)
+        assertThat(memberRepository.findById(optimistic.getId()).get().getAge()).isEqualTo(threads * updates);
+        assertThat(memberRepository.findByUsername("hotPessimistic").get(0).getAge()).isEqualTo(threads * updates);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void optimisticUpdateRetry() {
+        //given
+        Long id = memberRepository.save(new Member("retried", 0)).getId();
+        TransactionTemplate otherNode = new TransactionTemplate(transactionManager);
+        otherNode.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        long retriesBefore = optimisticUpdateExecutor.getRetryCount();
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when: 읽은 뒤 커밋하기 전에 다른 노드가 같은 회원을 먼저 수정 (첫 시도만)
+        int age = optimisticUpdateExecutor.execute(id, () -> {
+            Member member = em.find(Member.class, id);
+            if (attempts.incrementAndGet() == 1) {
+                otherNode.executeWithoutResult(status -> em.createQuery(
+                                "update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.id = :id")
+                        .setParameter("id", id)
+                        .executeUpdate());
+            }
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+
+        //then: 충돌한 첫 시도는 버려지고 최신 상태로 다시 읽어서 한번 더 실행
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(optimisticUpdateExecutor.getRetryCount() - retriesBefore).isEqualTo(1);
+        assertThat(age).isEqualTo(2);
+        assertThat(memberRepository.findById(id).get().getAge()).isEqualTo(2);
+    }
+
+    private static void runConcurrently(int threads, int updates, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < updates; j++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void generatedProjections(){
+        //given
+        Team team = teamRepository.save(new Team("projectionTeam"));
+        memberRepository.save(new Member("projected", 10, team));
+        memberRepository.save(new Member("projected", 20));
+        em.flush();
+        em.clear();
+
+        //when
+        List<NestedClosedProjections> result = memberRepository.findGeneratedProjectionsByUsername("projected", NestedClosedProjections.class);
+        List<UsernameOnly> usernames = memberRepository.findGeneratedProjectionsByUsername("projected", UsernameOnly.class);
+
+        //then
+        assertThat(result).hasSize(2);
+        assertThat(result).extracting(NestedClosedProjections::getUsername).containsOnly("projected");
+        assertThat(result).extracting(p -> p.getTeam() == null ? null : p.getTeam().getName()).containsOnly("projectionTeam", null);
+        assertThat(Proxy.isProxyClass(result.get(0).getClass())).isFalse(); // 생성된 구현 클래스
+        assertThat(usernames).extracting(UsernameOnly::getUsername).containsOnly("projected");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 청크를 병렬로 실행하므로 데이터를 먼저 커밋
+    public void findByNamesChunked(){
+        //given: 청크(512) 여러 개로 나뉘는 크기, 중복 포함
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(new Member("chunked" + i, 10));
+        }
+        memberRepository.saveAll(members);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            names.add("chunked" + i);
+        }
+        names.add("chunked0");
+
+        //when
+        List<Member> result = memberRepository.findByNamesChunked(names);
+
+        //then
+        assertThat(result).extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("chunked0", "chunked1", "chunked2", "chunked3", "chunked4");
+    }
+
+    @Test
+    public void findByNamesArray(){
+        //given: array-threshold(5000) 를 넘는 크기
+        em.persist(new Member("array1", 10));
+        em.persist(new Member("array2", 20));
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            names.add("array" + i);
+        }
+
+        //when: 저장한 회원은 flush 후 배열 조인 쿼리 한번
+        List<Member> result = memberRepository.findByNamesChunked(names);
+
+        //then
+        assertThat(result).extracting(Member::getUsername).containsExactlyInAnyOrder("array1", "array2");
+        assertThat(em.contains(result.get(0))).isTrue();
+        assertThat(memberRepository.findByNamesChunked(new ArrayList<>())).isEmpty();
+    }
+}
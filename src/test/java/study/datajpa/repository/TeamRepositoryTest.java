@@ -0,0 +1,79 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.support.QueryBudget;
+import study.datajpa.support.QueryCountExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class TeamRepositoryTest {
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    @QueryBudget(3) // 팀 페이지 + count + 회원 IN 조회
+    public void findPageWithMembers(QueryCounter queryCounter) {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("pagedTeam" + i));
+            memberRepository.save(new Member("pagedMember" + i + "a", 10, team));
+            memberRepository.save(new Member("pagedMember" + i + "b", 10, team));
+        }
+        em.flush();
+        em.clear();
+        queryCounter.reset();
+
+        //when
+        Page<Team> page = teamRepository.findPageWithMembers(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        //then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(3);
+        for (Team team : page.getContent()) {
+            assertThat(Hibernate.isInitialized(team.getMembers())).isTrue();
+            assertThat(team.getMembers()).hasSize(2); // 추가 쿼리 없음
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 호출하는 쪽 트랜잭션 / OSIV 없이 사용하는 경우
+    @QueryBudget(3)
+    public void findPageWithMembersWithoutTransaction(QueryCounter queryCounter) {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("detachedTeam" + i));
+            memberRepository.save(new Member("detachedMember" + i + "a", 10, team));
+            memberRepository.save(new Member("detachedMember" + i + "b", 10, team));
+        }
+        queryCounter.reset();
+
+        //when
+        Page<Team> page = teamRepository.findPageWithMembers(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        //then: 반환된 팀은 준영속 상태지만 members 는 초기화되어 있다.
+        assertThat(page.getContent()).extracting(Team::getName).containsExactly("detachedTeam2", "detachedTeam1");
+        for (Team team : page.getContent()) {
+            assertThat(Hibernate.isInitialized(team.getMembers())).isTrue();
+            assertThat(team.getMembers()).hasSize(2);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+    @Autowired MemberExportService memberExportService;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void exportCsv() throws Exception {
+        //given
+        Team team = new Team("export,team");
+        em.persist(team);
+        em.persist(new Member("export\"quoted", 10, team));
+        em.persist(new Member("export\r\nline", 20));
+        em.flush();
+
+        //when
+        StringWriter writer = new StringWriter();
+        int count = memberExportService.export(true, writer);
+
+        //then
+        String csv = writer.toString();
+        assertThat(csv).startsWith("id,username,teamName\n");
+        assertThat(csv).contains(",\"export\"\"quoted\",\"export,team\"\n", ",\"export\r\nline\",\n");
+        assertThat(count).isEqualTo(em.createQuery("select count(m) from Member m", Long.class).getSingleResult().intValue());
+    }
+
+    @Test
+    public void csvValue() {
+        assertThat(MemberExportService.csvValue(null)).isEmpty();
+        assertThat(MemberExportService.csvValue("plain")).isEqualTo("plain");
+        assertThat(MemberExportService.csvValue("a\rb")).isEqualTo("\"a\rb\"");
+        assertThat(MemberExportService.csvValue("a\"b")).isEqualTo("\"a\"\"b\"");
+    }
+}
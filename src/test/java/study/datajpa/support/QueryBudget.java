@@ -0,0 +1,16 @@
+package study.datajpa.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드에서 실행될 SQL 개수 (QueryCountExtension 이 테스트가 끝나면 검증)
+ * 준비 단계의 SQL 은 빼고 세려면 테스트 안에서 QueryCounter 를 파라미터로 받아 reset() 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,55 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import study.datajpa.monitoring.QueryCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * [SQL 실행 횟수 검증 JUnit 확장]
+ * - 테스트 메서드마다 QueryCounter 를 시작하고, QueryCounter 타입 파라미터로 주입해준다.
+ *   @BeforeEach 가 끝난 뒤 시작하므로 테스트 데이터 준비 SQL 은 세지 않는다. (테스트 트랜잭션 커밋 시 flush 는 포함)
+ * - @QueryBudget 이 있으면 테스트가 끝날 때 실행된 SQL 개수가 정확히 같은지 검증한다.
+ *
+ * 사용 예)
+ * <pre>
+ * &#64;ExtendWith(QueryCountExtension.class)
+ * class MemberRepositoryTest {
+ *     &#64;Test &#64;QueryBudget(2)
+ *     void paging(QueryCounter queryCounter) { ... queryCounter.reset(); ... }
+ * }
+ * </pre>
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterEachCallback, ParameterResolver {
+    private static final int N_PLUS_ONE_THRESHOLD = 10;
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCounter.begin(N_PLUS_ONE_THRESHOLD);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryCounter counter = QueryCounter.end();
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget != null && context.getExecutionException().isEmpty()) {
+            assertThat(counter.total())
+                    .as("실행된 SQL: %s", counter.statements())
+                    .isEqualTo(budget.value());
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCounter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return QueryCounter.current();
+    }
+}
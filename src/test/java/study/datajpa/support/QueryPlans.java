@@ -0,0 +1,46 @@
+package study.datajpa.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.monitoring.QueryCounter;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * [실행 계획 검증 (H2)]
+ * QueryCounter 로 실제 실행된 SQL 을 수집해서 같은 SQL 을 EXPLAIN 하고, 기대한 인덱스를 사용하는지 검증한다.
+ * H2 의 EXPLAIN 은 파라미터(?)를 바인딩하지 않아도 계획을 보여준다.
+ */
+public final class QueryPlans {
+
+    private QueryPlans() {
+    }
+
+    public static String explain(JdbcTemplate jdbcTemplate, String sql) {
+        List<String> plan = jdbcTemplate.query(con -> con.prepareStatement("explain " + sql), (rs, rowNum) -> rs.getString(1));
+        return String.join("\n", plan);
+    }
+
+    /**
+     * query 를 실행하고, table 을 조회(from / join)한 모든 SQL 의 실행 계획에 index 가 있는지 검증
+     */
+    public static void assertUsesIndex(JdbcTemplate jdbcTemplate, QueryCounter counter, String table, String index, Runnable query) {
+        counter.reset();
+        query.run();
+
+        Pattern reads = Pattern.compile("\\b(from|join)\\s+" + Pattern.quote(table) + "\\b", Pattern.CASE_INSENSITIVE);
+        List<String> statements = counter.statements();
+        assertThat(statements).as("%s 을 조회한 SQL 이 없습니다", table)
+                .anyMatch(sql -> reads.matcher(sql).find());
+        for (String sql : statements) {
+            if (!reads.matcher(sql).find()) {
+                continue;
+            }
+            assertThat(explain(jdbcTemplate, sql))
+                    .as("SQL: %s", sql)
+                    .containsIgnoringCase(index);
+        }
+    }
+}